@@ -0,0 +1,28 @@
+package io.wispforest.owowhatsthis.benchmark;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.registry.Registries;
+
+/**
+ * Bootstraps the vanilla registries, so that benchmarks can work with
+ * blocks, items and their endecs without a running game
+ */
+public final class BenchmarkBootstrap {
+
+    private static DynamicRegistryManager registries = null;
+
+    private BenchmarkBootstrap() {}
+
+    public static synchronized DynamicRegistryManager registries() {
+        if (registries == null) {
+            SharedConstants.createGameVersion();
+            Bootstrap.initialize();
+
+            registries = DynamicRegistryManager.of(Registries.REGISTRIES);
+        }
+
+        return registries;
+    }
+}
@@ -0,0 +1,82 @@
+package io.wispforest.owowhatsthis.benchmark;
+
+import io.wispforest.owowhatsthis.NumberFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link NumberFormatter#quantity(double, String, int)} against the
+ * previous {@code BigDecimal}-based implementation, which is copied below
+ * <p>
+ * {@code appendQuantity} formats into a reused builder and should show
+ * a {@code gc.alloc.rate.norm} of zero
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberFormatterBenchmark {
+
+    @Param({"0.042", "7", "1536.5", "81000000", "-2.75e13", "NaN", "Infinity"})
+    public double quantity;
+
+    @Param({"0", "1", "3"})
+    public int decimalPlaces;
+
+    private final StringBuilder builder = new StringBuilder(24);
+
+    @Benchmark
+    public String legacy() {
+        return legacyQuantity(this.quantity, "B", this.decimalPlaces);
+    }
+
+    @Benchmark
+    public String quantity() {
+        return NumberFormatter.quantity(this.quantity, "B", this.decimalPlaces);
+    }
+
+    @Benchmark
+    public StringBuilder appendQuantity() {
+        this.builder.setLength(0);
+        return NumberFormatter.appendQuantity(this.builder, this.quantity, "B", this.decimalPlaces);
+    }
+
+    private static final Map<Integer, String> LEGACY_PREFIXES = Map.ofEntries(
+            Map.entry(-30, "q"), Map.entry(-27, "r"), Map.entry(-24, "y"), Map.entry(-21, "z"),
+            Map.entry(-18, "a"), Map.entry(-15, "f"), Map.entry(-12, "p"), Map.entry(-9, "n"),
+            Map.entry(-6, "μ"), Map.entry(-3, "m"), Map.entry(0, ""),
+            Map.entry(3, "k"), Map.entry(6, "M"), Map.entry(9, "G"), Map.entry(12, "T"),
+            Map.entry(15, "P"), Map.entry(18, "E"), Map.entry(21, "Z"), Map.entry(24, "Y"),
+            Map.entry(27, "R"), Map.entry(30, "Q")
+    );
+
+    private static String legacyQuantity(double quantity, String unit, int decimalPlaces) {
+        if (Double.isInfinite(quantity)) return "∞ " + unit;
+        if (Double.isNaN(quantity)) return "NaN " + unit;
+
+        int order = 0;
+
+        if (quantity != 0) {
+            while (Math.abs(quantity) >= 1000d) {
+                quantity /= 1000d;
+                order += 3;
+            }
+
+            while (Math.abs(quantity) < 1d) {
+                quantity *= 1000;
+                order -= 3;
+            }
+        }
+
+        var decimal = new BigDecimal(quantity).setScale(decimalPlaces, RoundingMode.HALF_UP);
+        return (decimal.doubleValue() % 1 == 0 ? decimal.longValue() : decimal.toPlainString())
+                + LEGACY_PREFIXES.getOrDefault(order, "")
+                + unit;
+    }
+}
@@ -0,0 +1,71 @@
+package io.wispforest.owowhatsthis.benchmark;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.wispforest.endec.Endec;
+import io.wispforest.endec.SerializationContext;
+import io.wispforest.owo.serialization.RegistriesAttribute;
+import io.wispforest.owo.serialization.endec.MinecraftEndecs;
+import io.wispforest.owowhatsthis.information.InformationProvider;
+import io.wispforest.owowhatsthis.information.InformationProviders;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.network.RegistryByteBuf;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of provider data through the endecs used on the wire - the
+ * reflectively built endec of {@link InformationProviders.EntityHealthInfo} and
+ * the item list endec used by the inventory providers
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderEndecBenchmark {
+
+    private final Endec<InformationProviders.EntityHealthInfo> healthEndec = InformationProvider.REFLECTIVE_BUILDER.get(InformationProviders.EntityHealthInfo.class);
+    private final Endec<List<ItemStack>> itemListEndec = MinecraftEndecs.ITEM_STACK.listOf();
+
+    private final InformationProviders.EntityHealthInfo healthInfo = new InformationProviders.EntityHealthInfo(17.5f, 20f, 8);
+    private final List<ItemStack> items = new ArrayList<>();
+
+    private SerializationContext ctx;
+    private RegistryByteBuf buffer;
+
+    @Setup
+    public void setup() {
+        var registries = BenchmarkBootstrap.registries();
+        this.ctx = SerializationContext.attributes(RegistriesAttribute.of(registries));
+        this.buffer = new RegistryByteBuf(PooledByteBufAllocator.DEFAULT.heapBuffer(), registries);
+
+        var itemPool = List.of(Items.COBBLESTONE, Items.OAK_LOG, Items.IRON_INGOT, Items.DIAMOND_PICKAXE, Items.TORCH, Items.BREAD);
+        for (int i = 0; i < 27; i++) {
+            this.items.add(new ItemStack(itemPool.get(i % itemPool.size()), 1 + i % 64));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.buffer.release();
+    }
+
+    @Benchmark
+    public InformationProviders.EntityHealthInfo healthInfoRoundTrip() {
+        this.buffer.clear();
+        this.buffer.write(this.ctx, this.healthEndec, this.healthInfo);
+        return this.buffer.read(this.ctx, this.healthEndec);
+    }
+
+    @Benchmark
+    public List<ItemStack> itemListRoundTrip() {
+        this.buffer.clear();
+        this.buffer.write(this.ctx, this.itemListEndec, this.items);
+        return this.buffer.read(this.ctx, this.itemListEndec);
+    }
+}
@@ -0,0 +1,55 @@
+package io.wispforest.owowhatsthis.benchmark;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request allocation of encoding a block target into a fresh
+ * heap buffer, like {@code PacketByteBufs.create()} does, against encoding it
+ * into a pooled scratch buffer and handing out an exact-size copy
+ * <p>
+ * Run with the gc profiler (the default for {@code ./gradlew jmh}) and
+ * compare the {@code gc.alloc.rate.norm} (bytes allocated per request) column
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestEncodingBenchmark {
+
+    private final BlockPos pos = new BlockPos(-1204, 64, 3376);
+    private PacketByteBuf scratch;
+
+    @Setup
+    public void setup() {
+        this.scratch = new PacketByteBuf(PooledByteBufAllocator.DEFAULT.heapBuffer(32));
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.scratch.release();
+    }
+
+    @Benchmark
+    public PacketByteBuf freshBuffer() {
+        var buffer = new PacketByteBuf(Unpooled.buffer());
+        buffer.writeVarInt(0);
+        buffer.writeBlockPos(this.pos);
+        return buffer;
+    }
+
+    @Benchmark
+    public PacketByteBuf pooledScratchCopy() {
+        this.scratch.clear();
+        this.scratch.writeVarInt(0);
+        this.scratch.writeBlockPos(this.pos);
+        return new PacketByteBuf(Unpooled.copiedBuffer(this.scratch));
+    }
+}
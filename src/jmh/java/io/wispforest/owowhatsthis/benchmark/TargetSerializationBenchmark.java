@@ -0,0 +1,81 @@
+package io.wispforest.owowhatsthis.benchmark;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.wispforest.owo.network.ServerAccess;
+import io.wispforest.owowhatsthis.information.BlockStateWithPosition;
+import io.wispforest.owowhatsthis.information.FluidStateWithPosition;
+import io.wispforest.owowhatsthis.information.TargetKey;
+import io.wispforest.owowhatsthis.information.TargetType;
+import net.minecraft.block.Blocks;
+import net.minecraft.fluid.Fluids;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of block and fluid targets through their {@link TargetType} serializer
+ * and deserializer, as well as computing their {@link TargetKey}. The deserializers resolve
+ * the target against the requesting player, which is mocked along with its world
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetSerializationBenchmark {
+
+    private BlockStateWithPosition block;
+    private FluidStateWithPosition fluid;
+    private ServerAccess access;
+    private PacketByteBuf buffer;
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.registries();
+
+        this.block = new BlockStateWithPosition(new BlockPos(-1204, 64, 3376), Blocks.CHEST.getDefaultState());
+        this.fluid = new FluidStateWithPosition(new BlockPos(-1204, 63, 3376), Fluids.WATER.getStill(false));
+        this.buffer = new PacketByteBuf(PooledByteBufAllocator.DEFAULT.heapBuffer(32));
+
+        var world = Mockito.mock(ServerWorld.class);
+        Mockito.when(world.getBlockState(this.block.pos())).thenReturn(this.block.state());
+        Mockito.when(world.getFluidState(this.fluid.pos())).thenReturn(this.fluid.state());
+
+        var player = Mockito.mock(ServerPlayerEntity.class);
+        Mockito.when(player.getEyePos()).thenReturn(new Vec3d(-1203.5, 65, 3378.5));
+        Mockito.when(player.getWorld()).thenReturn(world);
+
+        this.access = new ServerAccess(player);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.buffer.release();
+    }
+
+    @Benchmark
+    public BlockStateWithPosition blockRoundTrip() {
+        this.buffer.clear();
+        TargetType.BLOCK.serializer().accept(this.block, this.buffer);
+        return TargetType.BLOCK.deserializer().apply(this.access, this.buffer);
+    }
+
+    @Benchmark
+    public FluidStateWithPosition fluidRoundTrip() {
+        this.buffer.clear();
+        TargetType.FLUID.serializer().accept(this.fluid, this.buffer);
+        return TargetType.FLUID.deserializer().apply(this.access, this.buffer);
+    }
+
+    @Benchmark
+    public TargetKey blockKey() {
+        return TargetType.BLOCK.keyOf(this.block);
+    }
+}
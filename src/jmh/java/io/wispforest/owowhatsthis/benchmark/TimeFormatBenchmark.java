@@ -0,0 +1,23 @@
+package io.wispforest.owowhatsthis.benchmark;
+
+import io.wispforest.owowhatsthis.NumberFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeFormatBenchmark {
+
+    @Param({"4", "95", "5025"})
+    public long seconds;
+
+    @Benchmark
+    public String time() {
+        return NumberFormatter.time(this.seconds);
+    }
+}
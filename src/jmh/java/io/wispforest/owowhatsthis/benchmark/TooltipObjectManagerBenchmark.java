@@ -0,0 +1,54 @@
+package io.wispforest.owowhatsthis.benchmark;
+
+import io.wispforest.endec.Endec;
+import io.wispforest.owowhatsthis.TooltipObjectManager;
+import io.wispforest.owowhatsthis.information.InformationProvider;
+import io.wispforest.owowhatsthis.information.TargetType;
+import net.minecraft.util.Identifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rebuilding the provider lists, which happens whenever the set of
+ * disabled providers changes. The providers are stubs spread over all built-in
+ * target types, with a few of them disabled or only shown while sneaking
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TooltipObjectManagerBenchmark {
+
+    @Param({"25", "250"})
+    public int providerCount;
+
+    private final List<TargetType<?>> targetTypes = new ArrayList<>();
+    private final Map<InformationProvider<?, ?>, Identifier> providers = new LinkedHashMap<>();
+    private final Map<Identifier, Boolean> disabledProviders = new HashMap<>();
+
+    @Setup
+    public void setup() {
+        BenchmarkBootstrap.registries();
+
+        this.targetTypes.addAll(List.of(TargetType.BLOCK, TargetType.FLUID, TargetType.ENTITY, TargetType.PLAYER));
+
+        var random = new Random(0);
+        for (int i = 0; i < this.providerCount; i++) {
+            var type = this.targetTypes.get(random.nextInt(this.targetTypes.size()));
+            var id = Identifier.of("benchmark", "provider_" + i);
+
+            this.providers.put(InformationProvider.server(type, random.nextBoolean(), random.nextInt(100) - 50, Endec.INT, (player, world, target) -> 0), id);
+            if (i % 10 == 0) this.disabledProviders.put(id, random.nextBoolean());
+        }
+    }
+
+    @Benchmark
+    public List<TargetType<?>> rebuild() {
+        TooltipObjectManager.rebuild(this.targetTypes, this.providers, this.disabledProviders);
+        return TooltipObjectManager.sortedTargetTypes();
+    }
+}
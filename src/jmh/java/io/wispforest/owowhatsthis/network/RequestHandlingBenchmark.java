@@ -0,0 +1,105 @@
+package io.wispforest.owowhatsthis.network;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.wispforest.endec.SerializationContext;
+import io.wispforest.owo.serialization.RegistriesAttribute;
+import io.wispforest.owo.serialization.endec.MinecraftEndecs;
+import io.wispforest.owowhatsthis.benchmark.BenchmarkBootstrap;
+import io.wispforest.owowhatsthis.information.BlockStateWithPosition;
+import io.wispforest.owowhatsthis.information.InformationProvider;
+import io.wispforest.owowhatsthis.information.TargetType;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.block.Blocks;
+import net.minecraft.inventory.SimpleInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mirrors the steps the server goes through for each update of an inventory
+ * target - running an inventory transformer against a stubbed container and
+ * {@linkplain UpdateAssembler#assemble assembling} the encoded result
+ * into an update packet, as the delta against the previously sent data
+ * <p>
+ * {@code changedSlots} controls how many slots change between updates, {@code 0}
+ * being the common case of an open chest that nobody is interacting with
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestHandlingBenchmark {
+
+    @Param({"0", "1", "27"})
+    public int changedSlots;
+
+    private final SimpleInventory inventory = new SimpleInventory(27);
+    private final UpdateAssembler.UpdateBatch batch = new UpdateAssembler.UpdateBatch();
+    private final Int2ObjectMap<Object> sentData = new Int2ObjectOpenHashMap<>();
+
+    private InformationProvider<Object, Object> provider;
+    private BlockStateWithPosition target;
+
+    private SerializationContext ctx;
+    private RegistryByteBuf encodeBuffer, assemblyBuffer;
+
+    private int tick = 0;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        var registries = BenchmarkBootstrap.registries();
+        this.ctx = SerializationContext.attributes(RegistriesAttribute.of(registries));
+
+        this.encodeBuffer = new RegistryByteBuf(PooledByteBufAllocator.DEFAULT.heapBuffer(), registries);
+        this.assemblyBuffer = new RegistryByteBuf(PooledByteBufAllocator.DEFAULT.heapBuffer(), registries);
+
+        for (int i = 0; i < this.inventory.size(); i++) {
+            this.inventory.setStack(i, new ItemStack(i % 2 == 0 ? Items.COBBLESTONE : Items.IRON_INGOT, 1 + i));
+        }
+
+        this.target = new BlockStateWithPosition(new BlockPos(-1204, 64, 3376), Blocks.CHEST.getDefaultState());
+        this.provider = (InformationProvider<Object, Object>) (Object) InformationProvider.serverList(
+                TargetType.BLOCK, true, 0, MinecraftEndecs.ITEM_STACK,
+                (player, world, target) -> {
+                    var items = new ArrayList<ItemStack>();
+                    for (int i = 0; i < this.inventory.size(); i++) {
+                        var stack = this.inventory.getStack(i);
+                        if (stack.isEmpty()) continue;
+
+                        items.add(stack);
+                    }
+
+                    return items;
+                }
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.encodeBuffer.release();
+        this.assemblyBuffer.release();
+    }
+
+    @Benchmark
+    public RegistryByteBuf handleUpdate() {
+        this.tick++;
+        for (int i = 0; i < this.changedSlots; i++) {
+            this.inventory.getStack(i).setCount(1 + (this.tick + i) % 64);
+        }
+
+        this.batch.clear();
+        this.batch.add(0, this.provider, new TransformerResultCache.Result(this.provider.transformer().apply(null, null, this.target)));
+
+        UpdateAssembler.assemble(this.assemblyBuffer, this.encodeBuffer, this.ctx, this.sentData, this.batch);
+        return this.assemblyBuffer;
+    }
+}
@@ -15,12 +15,25 @@ public class OwoWhatsThisConfig extends ConfigWrapper<io.wispforest.owowhatsthis
 
     private final Option<java.lang.Boolean> enableTooltip = this.optionForKey(this.keys.enableTooltip);
     private final Option<java.lang.Boolean> showFluids = this.optionForKey(this.keys.showFluids);
+    private final Option<java.lang.Double> reach = this.optionForKey(this.keys.reach);
+    private final Option<java.lang.Boolean> targetItemEntities = this.optionForKey(this.keys.targetItemEntities);
+    private final Option<java.lang.Boolean> targetInvisibleEntities = this.optionForKey(this.keys.targetInvisibleEntities);
     private final Option<io.wispforest.owo.ui.core.Color> tooltipColor = this.optionForKey(this.keys.tooltipColor);
     private final Option<io.wispforest.owo.ui.core.Color> tooltipBorderColor = this.optionForKey(this.keys.tooltipBorderColor);
     private final Option<java.lang.Integer> decimalPlaces = this.optionForKey(this.keys.decimalPlaces);
     private final Option<java.lang.Integer> maxItemContainerPreviewRows = this.optionForKey(this.keys.maxItemContainerPreviewRows);
     private final Option<java.lang.Integer> updateDelay = this.optionForKey(this.keys.updateDelay);
     private final Option<java.util.List<java.lang.String>> effectiveToolTags = this.optionForKey(this.keys.effectiveToolTags);
+    private final Option<java.lang.Integer> transformerCacheWindow = this.optionForKey(this.keys.transformerCacheWindow);
+    private final Option<java.lang.Boolean> cacheTooltipRender = this.optionForKey(this.keys.cacheTooltipRender);
+    private final Option<io.wispforest.owowhatsthis.OwoWhatsThisConfigModel.EntityPreviewMode> entityPreviewMode = this.optionForKey(this.keys.entityPreviewMode);
+    private final Option<java.lang.Integer> entityPreviewRate = this.optionForKey(this.keys.entityPreviewRate);
+    private final Option<java.lang.Integer> providerTimeBudget = this.optionForKey(this.keys.providerTimeBudget);
+    private final Option<java.lang.Integer> maxRequestsPerTick = this.optionForKey(this.keys.maxRequestsPerTick);
+    private final Option<java.lang.Integer> requestTimeBudget = this.optionForKey(this.keys.requestTimeBudget);
+    private final Option<java.lang.Integer> requestDwellTime = this.optionForKey(this.keys.requestDwellTime);
+    private final Option<java.lang.Boolean> debugOverlay = this.optionForKey(this.keys.debugOverlay);
+    private final Option<java.lang.Integer> statsExportInterval = this.optionForKey(this.keys.statsExportInterval);
     private final Option<java.util.Map<net.minecraft.util.Identifier,java.lang.Boolean>> disabledProviders = this.optionForKey(this.keys.disabledProviders);
 
     private OwoWhatsThisConfig() {
@@ -59,6 +72,30 @@ public class OwoWhatsThisConfig extends ConfigWrapper<io.wispforest.owowhatsthis
         showFluids.set(value);
     }
 
+    public double reach() {
+        return reach.value();
+    }
+
+    public void reach(double value) {
+        reach.set(value);
+    }
+
+    public boolean targetItemEntities() {
+        return targetItemEntities.value();
+    }
+
+    public void targetItemEntities(boolean value) {
+        targetItemEntities.set(value);
+    }
+
+    public boolean targetInvisibleEntities() {
+        return targetInvisibleEntities.value();
+    }
+
+    public void targetInvisibleEntities(boolean value) {
+        targetInvisibleEntities.set(value);
+    }
+
     public io.wispforest.owo.ui.core.Color tooltipColor() {
         return tooltipColor.value();
     }
@@ -111,6 +148,86 @@ public class OwoWhatsThisConfig extends ConfigWrapper<io.wispforest.owowhatsthis
         effectiveToolTags.observe(subscriber);
     }
 
+    public int transformerCacheWindow() {
+        return transformerCacheWindow.value();
+    }
+
+    public void transformerCacheWindow(int value) {
+        transformerCacheWindow.set(value);
+    }
+
+    public boolean cacheTooltipRender() {
+        return cacheTooltipRender.value();
+    }
+
+    public void cacheTooltipRender(boolean value) {
+        cacheTooltipRender.set(value);
+    }
+
+    public io.wispforest.owowhatsthis.OwoWhatsThisConfigModel.EntityPreviewMode entityPreviewMode() {
+        return entityPreviewMode.value();
+    }
+
+    public void entityPreviewMode(io.wispforest.owowhatsthis.OwoWhatsThisConfigModel.EntityPreviewMode value) {
+        entityPreviewMode.set(value);
+    }
+
+    public int entityPreviewRate() {
+        return entityPreviewRate.value();
+    }
+
+    public void entityPreviewRate(int value) {
+        entityPreviewRate.set(value);
+    }
+
+    public int providerTimeBudget() {
+        return providerTimeBudget.value();
+    }
+
+    public void providerTimeBudget(int value) {
+        providerTimeBudget.set(value);
+    }
+
+    public int maxRequestsPerTick() {
+        return maxRequestsPerTick.value();
+    }
+
+    public void maxRequestsPerTick(int value) {
+        maxRequestsPerTick.set(value);
+    }
+
+    public int requestTimeBudget() {
+        return requestTimeBudget.value();
+    }
+
+    public void requestTimeBudget(int value) {
+        requestTimeBudget.set(value);
+    }
+
+    public int requestDwellTime() {
+        return requestDwellTime.value();
+    }
+
+    public void requestDwellTime(int value) {
+        requestDwellTime.set(value);
+    }
+
+    public boolean debugOverlay() {
+        return debugOverlay.value();
+    }
+
+    public void debugOverlay(boolean value) {
+        debugOverlay.set(value);
+    }
+
+    public int statsExportInterval() {
+        return statsExportInterval.value();
+    }
+
+    public void statsExportInterval(int value) {
+        statsExportInterval.set(value);
+    }
+
     public java.util.Map<net.minecraft.util.Identifier,java.lang.Boolean> disabledProviders() {
         return disabledProviders.value();
     }
@@ -127,12 +244,25 @@ public class OwoWhatsThisConfig extends ConfigWrapper<io.wispforest.owowhatsthis
     public static class Keys {
         public final Option.Key enableTooltip = new Option.Key("enableTooltip");
         public final Option.Key showFluids = new Option.Key("showFluids");
+        public final Option.Key reach = new Option.Key("reach");
+        public final Option.Key targetItemEntities = new Option.Key("targetItemEntities");
+        public final Option.Key targetInvisibleEntities = new Option.Key("targetInvisibleEntities");
         public final Option.Key tooltipColor = new Option.Key("tooltipColor");
         public final Option.Key tooltipBorderColor = new Option.Key("tooltipBorderColor");
         public final Option.Key decimalPlaces = new Option.Key("decimalPlaces");
         public final Option.Key maxItemContainerPreviewRows = new Option.Key("maxItemContainerPreviewRows");
         public final Option.Key updateDelay = new Option.Key("updateDelay");
         public final Option.Key effectiveToolTags = new Option.Key("effectiveToolTags");
+        public final Option.Key transformerCacheWindow = new Option.Key("transformerCacheWindow");
+        public final Option.Key cacheTooltipRender = new Option.Key("cacheTooltipRender");
+        public final Option.Key entityPreviewMode = new Option.Key("entityPreviewMode");
+        public final Option.Key entityPreviewRate = new Option.Key("entityPreviewRate");
+        public final Option.Key providerTimeBudget = new Option.Key("providerTimeBudget");
+        public final Option.Key maxRequestsPerTick = new Option.Key("maxRequestsPerTick");
+        public final Option.Key requestTimeBudget = new Option.Key("requestTimeBudget");
+        public final Option.Key requestDwellTime = new Option.Key("requestDwellTime");
+        public final Option.Key debugOverlay = new Option.Key("debugOverlay");
+        public final Option.Key statsExportInterval = new Option.Key("statsExportInterval");
         public final Option.Key disabledProviders = new Option.Key("disabledProviders");
     }
 }
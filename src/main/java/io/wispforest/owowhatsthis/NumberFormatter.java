@@ -1,32 +1,20 @@
 package io.wispforest.owowhatsthis;
 
-import com.google.common.collect.ImmutableMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.text.MutableText;
-import net.minecraft.util.math.MathHelper;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-
 public class NumberFormatter {
 
-    private static final Int2ObjectMap<String> METRIC_PREFIXES = new Int2ObjectOpenHashMap<>(
-            ImmutableMap.<Integer, String>builder()
-                    .put(-30, "q").put(-27, "r")
-                    .put(-24, "y").put(-21, "z")
-                    .put(-18, "a").put(-15, "f")
-                    .put(-12, "p").put(-9, "n")
-                    .put(-6, "μ").put(-3, "m")
-                    .put(0, "")
-                    .put(3, "k").put(6, "M")
-                    .put(9, "G").put(12, "T")
-                    .put(15, "P").put(18, "E")
-                    .put(21, "Z").put(24, "Y")
-                    .put(27, "R").put(30, "Q")
-                    .build()
-    );
+    // Metric prefixes from 10^-30 to 10^30, indexed by (order + 30) / 3
+    private static final String[] METRIC_PREFIXES = {
+            "q", "r", "y", "z", "a", "f", "p", "n", "μ", "m",
+            "",
+            "k", "M", "G", "T", "P", "E", "Z", "Y", "R", "Q"
+    };
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000};
+
+    private static final ThreadLocal<StringBuilder> QUANTITY_BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(24));
 
     public static String time(long time) {
         var formatted = DurationFormatUtils.formatDuration(time * 1000, "H':'m':'ss");
@@ -39,9 +27,26 @@ public class NumberFormatter {
     }
 
     public static String quantity(double quantity, String unit) {
-        if (Double.isInfinite(quantity)) return "∞ " + unit;
-        if (Double.isNaN(quantity)) return "NaN " + unit;
+        return quantity(quantity, unit, OwoWhatsThis.CONFIG.decimalPlaces());
+    }
+
+    public static String quantity(double quantity, String unit, int decimalPlaces) {
+        var builder = QUANTITY_BUILDER.get();
+        builder.setLength(0);
+
+        return appendQuantity(builder, quantity, unit, decimalPlaces).toString();
+    }
 
+    /**
+     * Format the given quantity with the appropriate metric prefix and
+     * append it to {@code builder}, rounding half-up to the given
+     * amount of decimal places. Does not allocate
+     */
+    public static StringBuilder appendQuantity(StringBuilder builder, double quantity, String unit, int decimalPlaces) {
+        if (Double.isInfinite(quantity)) return builder.append("∞ ").append(unit);
+        if (Double.isNaN(quantity)) return builder.append("NaN ").append(unit);
+
+        decimalPlaces = Math.max(0, Math.min(decimalPlaces, POWERS_OF_TEN.length - 1));
         int order = 0;
 
         if (quantity != 0) {
@@ -56,10 +61,30 @@ public class NumberFormatter {
             }
         }
 
-        var decimal = new BigDecimal(quantity).setScale(OwoWhatsThis.CONFIG.decimalPlaces(), RoundingMode.HALF_UP);
-        return (MathHelper.fractionalPart(decimal.doubleValue()) == 0 ? decimal.longValue() : decimal.toPlainString())
-                + METRIC_PREFIXES.getOrDefault(order, "")
-                + unit;
+        // Round half-up on the exact value of the double, like BigDecimal does - the
+        // rounding error of the product is recovered through fma for the tie check.
+        // After normalization the magnitude is below 1000, so this cannot overflow
+        long scale = POWERS_OF_TEN[decimalPlaces];
+        double magnitude = Math.abs(quantity);
+        double product = magnitude * scale;
+        double error = Math.fma(magnitude, scale, -product);
+        double floor = Math.floor(product);
+        long scaled = (long) floor + ((product - floor) - .5d >= -error ? 1 : 0);
+
+        if (quantity < 0 && scaled != 0) builder.append('-');
+        builder.append(scaled / scale);
+
+        long fraction = scaled % scale;
+        if (fraction != 0) {
+            builder.append('.');
+            for (long digit = scale / 10; digit > fraction; digit /= 10) builder.append('0');
+            builder.append(fraction);
+        }
+
+        int prefixIdx = (order + 30) / 3;
+        if (order >= -30 && prefixIdx < METRIC_PREFIXES.length) builder.append(METRIC_PREFIXES[prefixIdx]);
+
+        return builder.append(unit);
     }
 
 }
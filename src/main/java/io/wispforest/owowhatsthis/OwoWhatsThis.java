@@ -1,42 +1,65 @@
 package io.wispforest.owowhatsthis;
 
+import com.mojang.logging.LogUtils;
+import io.wispforest.owo.ops.TextOps;
 import io.wispforest.owo.registration.reflect.FieldRegistrationHandler;
 import io.wispforest.owo.text.CustomTextRegistry;
 import io.wispforest.owo.util.OwoFreezer;
 import io.wispforest.owowhatsthis.compat.OwoWhatsThisPlugin;
+import io.wispforest.owowhatsthis.information.HarvestabilityCache;
 import io.wispforest.owowhatsthis.information.InformationProvider;
 import io.wispforest.owowhatsthis.information.InformationProviders;
 import io.wispforest.owowhatsthis.information.TargetType;
+import io.wispforest.owowhatsthis.mixin.WorldAccessor;
 import io.wispforest.owowhatsthis.network.OwoWhatsThisNetworking;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
 import net.fabricmc.fabric.api.event.registry.FabricRegistryBuilder;
 import net.fabricmc.fabric.api.event.registry.RegistryAttribute;
 import net.fabricmc.fabric.api.lookup.v1.block.BlockApiLookup;
 import net.fabricmc.fabric.api.transfer.v1.storage.Storage;
 import net.fabricmc.fabric.api.transfer.v1.storage.StorageView;
 import net.fabricmc.loader.api.FabricLoader;
-import net.fabricmc.loader.api.ModContainer;
-import net.fabricmc.loader.api.metadata.ModMetadata;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.entity.decoration.ArmorStandEntity;
+import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.projectile.ProjectileUtil;
 import net.minecraft.registry.Registry;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.function.LazyIterationConsumer;
+import net.minecraft.util.hit.EntityHitResult;
 import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Direction;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
 
 import java.util.*;
 
 public class OwoWhatsThis implements ModInitializer {
 
     public static final String MOD_ID = "owo-whats-this";
+    public static final Logger LOGGER = LogUtils.getLogger();
     public static final io.wispforest.owowhatsthis.OwoWhatsThisConfig CONFIG = io.wispforest.owowhatsthis.OwoWhatsThisConfig.createAndLoad();
 
+    /**
+     * The upper limit of the {@code reach} option. The server rejects block and fluid targets
+     * which are further than {@link #MAX_TARGET_DISTANCE} from the eyes of the requesting player -
+     * that leaves room for the target being anywhere on the block and for the server's view of
+     * the player lagging behind the client
+     */
+    public static final double MAX_REACH = 8;
+    public static final double MAX_TARGET_DISTANCE = MAX_REACH + 2;
+
     public static final RegistryKey<Registry<TargetType<?>>> TARGET_TYPE_KEY = RegistryKey.ofRegistry(id("target_types"));
     public static final Registry<TargetType<?>> TARGET_TYPE =
             FabricRegistryBuilder.createSimple(TARGET_TYPE_KEY)
@@ -54,6 +77,10 @@ public class OwoWhatsThis implements ModInitializer {
 
     private static final Direction[] ALL_DIRECTIONS = Direction.values();
 
+    // Both are built once during initialization and never modified afterwards
+    private static Map<String, String> modNames = Map.of();
+    private static Map<String, Text> modNameTexts = Map.of();
+
     @Override
     public void onInitialize() {
         Registry.register(TARGET_TYPE, id("block"), TargetType.BLOCK);
@@ -61,6 +88,8 @@ public class OwoWhatsThis implements ModInitializer {
         Registry.register(TARGET_TYPE, id("player"), TargetType.PLAYER);
         Registry.register(TARGET_TYPE, id("fluid"), TargetType.FLUID);
 
+        cacheModNames();
+
         FieldRegistrationHandler.register(InformationProviders.class, MOD_ID, false);
 
         for (var entrypoint : FabricLoader.getInstance().getEntrypoints("owo-whats-this-plugin", OwoWhatsThisPlugin.class)) {
@@ -69,11 +98,21 @@ public class OwoWhatsThis implements ModInitializer {
         }
 
         OwoWhatsThisNetworking.initialize();
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> OwoWhatsThisCommand.register(dispatcher));
         OwoFreezer.registerFreezeCallback(TooltipObjectManager::updateAndSort);
         CONFIG.subscribeToDisabledProviders(strings -> TooltipObjectManager.updateAndSort());
 
         cacheEffectiveToolTags();
-        CONFIG.subscribeToEffectiveToolTags(strings -> cacheEffectiveToolTags());
+        CONFIG.subscribeToEffectiveToolTags(strings -> {
+            cacheEffectiveToolTags();
+            HarvestabilityCache.invalidate();
+        });
+
+        // The cache is only used on the client thread, and an integrated server
+        // reloading its tags is always followed by a client-side reload
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> {
+            if (client) HarvestabilityCache.invalidate();
+        });
 
         CustomTextRegistry.register(QuantityTextContent.TYPE, "quantity");
     }
@@ -84,11 +123,38 @@ public class OwoWhatsThis implements ModInitializer {
     }
 
     public static String modNameOf(Identifier id) {
-        return FabricLoader.getInstance()
-                .getModContainer(id.getNamespace())
-                .map(ModContainer::getMetadata)
-                .map(ModMetadata::getName)
-                .orElse(id.getNamespace());
+        return modNames.getOrDefault(id.getNamespace(), id.getNamespace());
+    }
+
+    /**
+     * The name of the mod which owns the given id, formatted the
+     * way it is displayed in tooltips. The returned text is shared
+     * and must not be modified
+     */
+    public static Text modNameText(Identifier id) {
+        var text = modNameTexts.get(id.getNamespace());
+        return text != null ? text : TextOps.withFormatting(id.getNamespace(), Formatting.BLUE);
+    }
+
+    // Like FabricLoader#getModContainer, this resolves the ids a mod
+    // provides as well - a mod's own id takes precedence over those
+    private static void cacheModNames() {
+        var names = new HashMap<String, String>();
+        for (var mod : FabricLoader.getInstance().getAllMods()) {
+            names.put(mod.getMetadata().getId(), mod.getMetadata().getName());
+        }
+
+        for (var mod : FabricLoader.getInstance().getAllMods()) {
+            for (var providedId : mod.getMetadata().getProvides()) {
+                names.putIfAbsent(providedId, mod.getMetadata().getName());
+            }
+        }
+
+        var texts = new HashMap<String, Text>();
+        names.forEach((namespace, name) -> texts.put(namespace, TextOps.withFormatting(name, Formatting.BLUE)));
+
+        modNames = Map.copyOf(names);
+        modNameTexts = Map.copyOf(texts);
     }
 
     public static Map<Identifier, Text> effectiveToolTags() {
@@ -107,21 +173,88 @@ public class OwoWhatsThis implements ModInitializer {
     }
 
     public static HitResult raycast(Entity entity, float tickDelta) {
-        var blockTarget = entity.raycast(5, tickDelta, OwoWhatsThis.CONFIG.showFluids());
-
-        var maxReach = entity.getRotationVec(tickDelta).multiply(5);
-        var entityTarget = ProjectileUtil.raycast(
-                entity,
-                entity.getEyePos(),
-                entity.getEyePos().add(maxReach),
-                entity.getBoundingBox().stretch(maxReach),
-                candidate -> true,
-                5 * 5
-        );
-
-        return entityTarget != null && entityTarget.squaredDistanceTo(entity) < blockTarget.squaredDistanceTo(entity)
-                ? entityTarget
+        double reach = CONFIG.reach();
+        var blockTarget = entity.raycast(reach, tickDelta, CONFIG.showFluids());
+
+        // Entities behind the targeted block are hidden by it anyway,
+        // so the entity search only needs to cover the distance up to it
+        var start = entity.getCameraPosVec(tickDelta);
+        double maxDistance = blockTarget.getType() == HitResult.Type.MISS ? reach : start.distanceTo(blockTarget.getPos());
+
+        var ray = entity.getRotationVec(tickDelta).multiply(maxDistance);
+        var searchBox = entity.getBoundingBox().stretch(ray).expand(1);
+        var search = new EntitySearch(entity, start, start.add(ray), maxDistance * maxDistance);
+        ((WorldAccessor) entity.getWorld()).whatsThis$getEntityLookup().forEachIntersects(searchBox, search);
+
+        // Dragon parts reach far beyond the bounding box of the dragon itself, so
+        // just like World#getOtherEntities they are tested on their own
+        for (var part : entity.getWorld().getEnderDragonParts()) {
+            if (search.squaredDistance == 0) break;
+            if (part.getBoundingBox().intersects(searchBox)) search.test(part);
+        }
+
+        return search.hit != null
+                ? new EntityHitResult(search.hit, search.hitPos)
                 : blockTarget;
     }
-}
 
+    private static boolean isTargetable(Entity viewer, Entity candidate) {
+        if (candidate == viewer || candidate.isSpectator()) return false;
+        if (candidate instanceof ArmorStandEntity armorStand && armorStand.isMarker()) return false;
+        if (candidate instanceof ItemEntity) return CONFIG.targetItemEntities();
+
+        if (CONFIG.targetInvisibleEntities()) return true;
+        return viewer instanceof PlayerEntity player ? !candidate.isInvisibleTo(player) : !candidate.isInvisible();
+    }
+
+    /**
+     * Finds the closest entity intersecting the given ray, mirroring
+     * {@link ProjectileUtil#raycast(Entity, Vec3d, Vec3d, Box, java.util.function.Predicate, double)}
+     * without collecting the candidates into a list first
+     */
+    private static final class EntitySearch implements LazyIterationConsumer<Entity> {
+
+        private final Entity viewer;
+        private final Vec3d start, end;
+
+        private double squaredDistance;
+        private @Nullable Entity hit = null;
+        private @Nullable Vec3d hitPos = null;
+
+        private EntitySearch(Entity viewer, Vec3d start, Vec3d end, double maxSquaredDistance) {
+            this.viewer = viewer;
+            this.start = start;
+            this.end = end;
+            this.squaredDistance = maxSquaredDistance;
+        }
+
+        @Override
+        public NextIteration accept(Entity candidate) {
+            if (isTargetable(this.viewer, candidate)) this.test(candidate);
+
+            // Nothing can be closer than an entity the camera is inside of
+            return this.squaredDistance == 0 ? NextIteration.ABORT : NextIteration.CONTINUE;
+        }
+
+        private void test(Entity candidate) {
+            var box = candidate.getBoundingBox().expand(candidate.getTargetingMargin());
+            var intersection = box.raycast(this.start, this.end);
+
+            if (box.contains(this.start)) {
+                this.hit = candidate;
+                this.hitPos = intersection.orElse(this.start);
+                this.squaredDistance = 0;
+                return;
+            }
+
+            if (intersection.isEmpty() || candidate.getRootVehicle() == this.viewer.getRootVehicle()) return;
+
+            double squaredDistance = this.start.squaredDistanceTo(intersection.get());
+            if (squaredDistance >= this.squaredDistance) return;
+
+            this.hit = candidate;
+            this.hitPos = intersection.get();
+            this.squaredDistance = squaredDistance;
+        }
+    }
+}
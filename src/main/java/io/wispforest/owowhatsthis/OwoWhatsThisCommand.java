@@ -0,0 +1,83 @@
+package io.wispforest.owowhatsthis;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+import io.wispforest.owowhatsthis.network.ProviderBudgetTracker;
+import io.wispforest.owowhatsthis.network.TooltipStatsExporter;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+
+import java.util.Comparator;
+
+public class OwoWhatsThisCommand {
+
+    private static final int MAX_STATS_PROVIDERS = 10;
+
+    public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
+        dispatcher.register(CommandManager.literal("whatsthis")
+                .requires(source -> source.hasPermissionLevel(2))
+                .then(CommandManager.literal("throttled").executes(OwoWhatsThisCommand::listThrottled))
+                .then(CommandManager.literal("stats")
+                        .executes(OwoWhatsThisCommand::printStats)
+                        .then(CommandManager.literal("reset").executes(OwoWhatsThisCommand::resetStats))));
+    }
+
+    private static int printStats(CommandContext<ServerCommandSource> context) {
+        var source = context.getSource();
+
+        var sentBytes = TooltipMetrics.SERVER_SENT_BYTES;
+        source.sendFeedback(() -> Text.literal("Sent " + sentBytes.count() + " updates, ")
+                .append(Text.literal(Math.round(sentBytes.mean()) + "B avg, " + sentBytes.max() + "B max").formatted(Formatting.GRAY)), false);
+        source.sendFeedback(() -> Text.literal("Rate limited " + TooltipMetrics.SERVER_RATE_LIMITED.count() + " requests, deferred " + TooltipMetrics.SERVER_DEFERRED.count() + " updates"), false);
+
+        TooltipMetrics.serverProviderTimes().entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> -entry.getValue().total()))
+                .limit(MAX_STATS_PROVIDERS)
+                .forEach(entry -> {
+                    var metric = entry.getValue();
+                    var line = Text.literal(String.valueOf(OwoWhatsThis.INFORMATION_PROVIDER.getId(entry.getKey())))
+                            .append(Text.literal(" - " + metric.total() / 1000 + "µs total, " + Math.round(metric.mean() / 1000) + "µs avg, " + metric.max() / 1000 + "µs max").formatted(Formatting.GRAY));
+
+                    source.sendFeedback(() -> line, false);
+                });
+
+        return (int) sentBytes.count();
+    }
+
+    private static int resetStats(CommandContext<ServerCommandSource> context) {
+        TooltipMetrics.resetServer();
+        TooltipStatsExporter.clear();
+        context.getSource().sendFeedback(() -> Text.literal("Tooltip metrics have been reset"), false);
+        return 1;
+    }
+
+    private static int listThrottled(CommandContext<ServerCommandSource> context) {
+        var source = context.getSource();
+        long currentTick = source.getServer().getTicks();
+
+        int throttled = 0;
+        for (var entry : ProviderBudgetTracker.budgets().entrySet()) {
+            var budget = entry.getValue();
+            if (budget.state() == ProviderBudgetTracker.State.NORMAL) continue;
+
+            var line = Text.literal(String.valueOf(OwoWhatsThis.INFORMATION_PROVIDER.getId(entry.getKey())))
+                    .append(Text.literal(" - " + budget.state().name().toLowerCase()).formatted(budget.state() == ProviderBudgetTracker.State.DISABLED ? Formatting.RED : Formatting.GOLD))
+                    .append(Text.literal(", took " + budget.lastOverrunNanos() / 1000 + "µs " + (currentTick - budget.lastOverrunTick()) / 20 + "s ago").formatted(Formatting.GRAY));
+
+            if (budget.state() == ProviderBudgetTracker.State.DISABLED) {
+                line.append(Text.literal(", re-enabled in " + (budget.disabledUntil() - currentTick) / 20 + "s").formatted(Formatting.GRAY));
+            }
+
+            source.sendFeedback(() -> line, false);
+            throttled++;
+        }
+
+        if (throttled == 0) {
+            source.sendFeedback(() -> Text.literal("No tooltip providers are currently throttled"), false);
+        }
+
+        return throttled;
+    }
+}
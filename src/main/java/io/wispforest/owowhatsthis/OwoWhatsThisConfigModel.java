@@ -18,6 +18,12 @@ public class OwoWhatsThisConfigModel {
 
     public boolean showFluids = false;
 
+    @RangeConstraint(min = 1, max = OwoWhatsThis.MAX_REACH)
+    public double reach = 5;
+
+    public boolean targetItemEntities = true;
+    public boolean targetInvisibleEntities = false;
+
     @WithAlpha
     public Color tooltipColor = Color.ofArgb(0x77000000);
     @WithAlpha
@@ -41,6 +47,34 @@ public class OwoWhatsThisConfigModel {
             )
     );
 
+    @SectionHeader("performance")
+    @RangeConstraint(min = 1, max = 20)
+    public int transformerCacheWindow = 1;
+
+    public boolean cacheTooltipRender = false;
+
+    public EntityPreviewMode entityPreviewMode = EntityPreviewMode.LIVE;
+
+    @RangeConstraint(min = 1, max = 60)
+    public int entityPreviewRate = 10;
+
+    @RangeConstraint(min = 100, max = 50000)
+    public int providerTimeBudget = 2000;
+
+    @RangeConstraint(min = 1, max = 1000)
+    public int maxRequestsPerTick = 64;
+
+    @RangeConstraint(min = 100, max = 50000)
+    public int requestTimeBudget = 5000;
+
+    @RangeConstraint(min = 0, max = 10)
+    public int requestDwellTime = 2;
+
+    public boolean debugOverlay = false;
+
+    @RangeConstraint(min = 0, max = 3600)
+    public int statsExportInterval = 0;
+
     /**
      * Mapping from {@code provider id -> allow while sneaking}
      * <p>
@@ -55,4 +89,8 @@ public class OwoWhatsThisConfigModel {
     public enum ProviderState {
         ENABLED, WHEN_SNEAKING, DISABLED
     }
+
+    public enum EntityPreviewMode {
+        LIVE, THROTTLED, STATIC
+    }
 }
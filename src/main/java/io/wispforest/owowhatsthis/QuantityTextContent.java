@@ -10,9 +10,10 @@ import net.minecraft.text.StringVisitable;
 import net.minecraft.text.Style;
 import net.minecraft.text.TextContent;
 
+import java.util.Objects;
 import java.util.Optional;
 
-public record QuantityTextContent(double quantity, String unit) implements TextContent {
+public final class QuantityTextContent implements TextContent {
 
     public static final StructEndec<QuantityTextContent> ENDEC = StructEndecBuilder.of(
             Endec.DOUBLE.fieldOf("quantity", QuantityTextContent::quantity),
@@ -25,14 +26,37 @@ public record QuantityTextContent(double quantity, String unit) implements TextC
             OwoWhatsThis.id("quantity").toString()
     );
 
+    private final double quantity;
+    private final String unit;
+
+    // Text is visited several times per frame, so the formatted
+    // string is kept around until the decimal places change
+    private String formatted = null;
+    private int formattedDecimalPlaces = -1;
+
+    public QuantityTextContent(double quantity, String unit) {
+        this.quantity = quantity;
+        this.unit = unit;
+    }
+
     @Override
     public <T> Optional<T> visit(StringVisitable.StyledVisitor<T> visitor, Style style) {
-        return visitor.accept(style, NumberFormatter.quantity(this.quantity, this.unit));
+        return visitor.accept(style, this.formatted());
     }
 
     @Override
     public <T> Optional<T> visit(StringVisitable.Visitor<T> visitor) {
-        return visitor.accept(NumberFormatter.quantity(this.quantity, this.unit));
+        return visitor.accept(this.formatted());
+    }
+
+    private String formatted() {
+        int decimalPlaces = OwoWhatsThis.CONFIG.decimalPlaces();
+        if (this.formatted == null || this.formattedDecimalPlaces != decimalPlaces) {
+            this.formatted = NumberFormatter.quantity(this.quantity, this.unit, decimalPlaces);
+            this.formattedDecimalPlaces = decimalPlaces;
+        }
+
+        return this.formatted;
     }
 
     @Override
@@ -40,4 +64,28 @@ public record QuantityTextContent(double quantity, String unit) implements TextC
         return TYPE;
     }
 
+    public double quantity() {
+        return this.quantity;
+    }
+
+    public String unit() {
+        return this.unit;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof QuantityTextContent that)) return false;
+        return Double.compare(this.quantity, that.quantity) == 0 && this.unit.equals(that.unit);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.quantity, this.unit);
+    }
+
+    @Override
+    public String toString() {
+        return "QuantityTextContent[quantity=" + this.quantity + ", unit=" + this.unit + "]";
+    }
 }
@@ -0,0 +1,136 @@
+package io.wispforest.owowhatsthis;
+
+import io.wispforest.owowhatsthis.information.InformationProvider;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Performance metrics of the tooltip pipeline. Client metrics are only ever
+ * touched on the client thread and server metrics only on the server thread,
+ * so none of this is synchronized
+ */
+@ApiStatus.Internal
+public class TooltipMetrics {
+
+    public static final Metric CLIENT_REBUILD_TIME = new Metric();
+    public static final Metric CLIENT_ROUND_TRIP_TIME = new Metric();
+    public static final Metric CLIENT_RECEIVED_BYTES = new Metric();
+    private static final Map<InformationProvider<?, ?>, Metric> CLIENT_PROVIDER_TIMES = new IdentityHashMap<>();
+
+    public static final Metric SERVER_SENT_BYTES = new Metric();
+    public static final Metric SERVER_RATE_LIMITED = new Metric();
+    public static final Metric SERVER_DEFERRED = new Metric();
+    public static final Metric SERVER_THROTTLED = new Metric();
+    public static final Metric SERVER_CACHE_HITS = new Metric();
+    public static final Metric SERVER_CACHE_MISSES = new Metric();
+    private static final Map<InformationProvider<?, ?>, Metric> SERVER_PROVIDER_TIMES = new IdentityHashMap<>();
+
+    public static Metric clientProviderTime(InformationProvider<?, ?> provider) {
+        return CLIENT_PROVIDER_TIMES.computeIfAbsent(provider, $ -> new Metric());
+    }
+
+    public static Map<InformationProvider<?, ?>, Metric> clientProviderTimes() {
+        return Collections.unmodifiableMap(CLIENT_PROVIDER_TIMES);
+    }
+
+    public static Metric serverProviderTime(InformationProvider<?, ?> provider) {
+        return SERVER_PROVIDER_TIMES.computeIfAbsent(provider, $ -> new Metric());
+    }
+
+    public static Map<InformationProvider<?, ?>, Metric> serverProviderTimes() {
+        return Collections.unmodifiableMap(SERVER_PROVIDER_TIMES);
+    }
+
+    public static void resetClient() {
+        CLIENT_REBUILD_TIME.reset();
+        CLIENT_ROUND_TRIP_TIME.reset();
+        CLIENT_RECEIVED_BYTES.reset();
+        CLIENT_PROVIDER_TIMES.clear();
+    }
+
+    public static void resetServer() {
+        SERVER_SENT_BYTES.reset();
+        SERVER_RATE_LIMITED.reset();
+        SERVER_DEFERRED.reset();
+        SERVER_THROTTLED.reset();
+        SERVER_CACHE_HITS.reset();
+        SERVER_CACHE_MISSES.reset();
+        SERVER_PROVIDER_TIMES.clear();
+    }
+
+    /**
+     * Running count, total and maximum of some value. The most recent
+     * {@link #SAMPLE_COUNT} recorded values are kept around for percentiles
+     */
+    public static final class Metric {
+
+        public static final int SAMPLE_COUNT = 512;
+
+        private long count = 0;
+        private long total = 0;
+        private long max = 0;
+
+        private long @Nullable [] samples = null;
+        private int sampleCursor = 0, sampleSize = 0;
+
+        public void record(long value) {
+            this.count++;
+            this.total += value;
+            if (value > this.max) this.max = value;
+
+            if (this.samples == null) this.samples = new long[SAMPLE_COUNT];
+            this.samples[this.sampleCursor] = value;
+            this.sampleCursor = (this.sampleCursor + 1) % SAMPLE_COUNT;
+            if (this.sampleSize < SAMPLE_COUNT) this.sampleSize++;
+        }
+
+        public void increment() {
+            this.count++;
+        }
+
+        public long count() {
+            return this.count;
+        }
+
+        public long total() {
+            return this.total;
+        }
+
+        public long max() {
+            return this.max;
+        }
+
+        public double mean() {
+            return this.count == 0 ? 0 : this.total / (double) this.count;
+        }
+
+        /**
+         * The given percentile of the most recently recorded values,
+         * or {@code 0} if nothing has been recorded yet
+         *
+         * @param percentile The percentile to compute, in {@code [0, 1]}
+         */
+        public long percentile(double percentile) {
+            if (this.samples == null || this.sampleSize == 0) return 0;
+
+            var sorted = Arrays.copyOf(this.samples, this.sampleSize);
+            Arrays.sort(sorted);
+
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        public void reset() {
+            this.count = 0;
+            this.total = 0;
+            this.max = 0;
+            this.sampleCursor = 0;
+            this.sampleSize = 0;
+        }
+    }
+}
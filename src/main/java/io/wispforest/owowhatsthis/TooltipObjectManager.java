@@ -3,47 +3,59 @@ package io.wispforest.owowhatsthis;
 import io.wispforest.owowhatsthis.information.InformationProvider;
 import io.wispforest.owowhatsthis.information.TargetType;
 import net.minecraft.registry.RegistryKey;
-import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TooltipObjectManager {
 
-    private static final List<TargetType<?>> SORTED_TARGET_TYPES = new ArrayList<>();
-    private static final List<TargetType<?>> SORTED_TARGET_TYPES_VIEW = Collections.unmodifiableList(SORTED_TARGET_TYPES);
+    // Provider lists are read from both the client and the server thread - a rebuild
+    // builds a complete new set of them, which is then published in one go
+    private static volatile ProviderLists lists = ProviderLists.EMPTY;
 
-    private static final Map<TargetType<?>, List<InformationProvider<?, ?>>> PROVIDERS_BY_TYPE = new HashMap<>();
-    private static final Map<TargetType<?>, List<InformationProvider<?, ?>>> ALWAYS_VISIBLE_PROVIDERS_BY_TYPE = new HashMap<>();
+    public static void updateAndSort() {
+        var targetTypes = new ArrayList<TargetType<?>>();
+        OwoWhatsThis.TARGET_TYPE.forEach(targetTypes::add);
 
-    private static final List<InformationProvider<?, ?>> LIVE_PROVIDERS = new ArrayList<>();
-    private static final List<InformationProvider<?, ?>> LIVE_PROVIDERS_VIEW = Collections.unmodifiableList(LIVE_PROVIDERS);
+        var providers = new LinkedHashMap<InformationProvider<?, ?>, Identifier>();
+        OwoWhatsThis.INFORMATION_PROVIDER.streamEntries().forEach(entry -> {
+            providers.put(entry.value(), entry.getKey().map(RegistryKey::getValue).orElse(null));
+        });
 
-    public static void updateAndSort() {
-        SORTED_TARGET_TYPES.clear();
-        PROVIDERS_BY_TYPE.clear();
-        LIVE_PROVIDERS.clear();
+        rebuild(targetTypes, providers, OwoWhatsThis.CONFIG.disabledProviders());
+    }
 
-        OwoWhatsThis.TARGET_TYPE.streamEntries()
-                .map(RegistryEntry.Reference::value)
+    /**
+     * Rebuild all provider lists from the given target types and providers. This is what
+     * {@link #updateAndSort()} does with the contents of the registries and the config -
+     * it is separate so that it can be exercised without a running game
+     */
+    @ApiStatus.Internal
+    public static void rebuild(Collection<TargetType<?>> targetTypes, Map<InformationProvider<?, ?>, Identifier> providerIds, Map<Identifier, Boolean> disabledProviders) {
+        var sortedTargetTypes = targetTypes.stream()
                 .sorted(Comparator.comparingInt(type -> -type.priority()))
-                .forEach(SORTED_TARGET_TYPES::add);
+                .toList();
 
+        var liveProviders = new ArrayList<InformationProvider<?, ?>>();
         var providersByType = new HashMap<TargetType<?>, List<InformationProvider<?, ?>>>();
-        OwoWhatsThis.INFORMATION_PROVIDER.streamEntries()
+        providerIds.entrySet().stream()
                 .filter(entry -> {
-                    var id = entry.getKey().map(RegistryKey::getValue).orElse(null);
-                    if (!OwoWhatsThis.CONFIG.disabledProviders().containsKey(id)) return true;
-                    return OwoWhatsThis.CONFIG.disabledProviders().get(id);
+                    var id = entry.getValue();
+                    if (!disabledProviders.containsKey(id)) return true;
+                    return disabledProviders.get(id);
                 })
-                .map(RegistryEntry.Reference::value)
+                .map(Map.Entry::getKey)
                 .sorted(Comparator.comparingInt(provider -> -provider.priority()))
                 .forEach(provider -> {
                     providersByType.computeIfAbsent(provider.applicableTargetType(), type -> new ArrayList<>()).add(provider);
-                    if (provider.live()) LIVE_PROVIDERS.add(provider);
+                    if (provider.live()) liveProviders.add(provider);
                 });
 
-        SORTED_TARGET_TYPES.forEach(targetType -> {
-            var providers = providersByType.getOrDefault(targetType, new ArrayList<>());
+        var sortedProvidersByType = new HashMap<TargetType<?>, List<InformationProvider<?, ?>>>();
+        sortedTargetTypes.forEach(targetType -> {
+            var providers = new ArrayList<>(providersByType.getOrDefault(targetType, List.of()));
             var parent = targetType.parent();
             while (parent != null) {
                 providers.addAll(providersByType.getOrDefault(parent, List.of()));
@@ -51,38 +63,86 @@ public class TooltipObjectManager {
             }
 
             providers.sort(Comparator.comparingInt(provider -> -provider.priority()));
-            PROVIDERS_BY_TYPE.put(
+            sortedProvidersByType.put(
                     targetType,
                     Collections.unmodifiableList(providers)
             );
         });
 
-        PROVIDERS_BY_TYPE.forEach((targetType, informationProviders) -> {
+        var alwaysVisibleProvidersByType = new HashMap<TargetType<?>, List<InformationProvider<?, ?>>>();
+        sortedProvidersByType.forEach((targetType, informationProviders) -> {
             var alwaysVisibleProviders = new ArrayList<InformationProvider<?, ?>>();
 
             for (var provider : informationProviders) {
-                var id = OwoWhatsThis.INFORMATION_PROVIDER.getId(provider);
-                if (OwoWhatsThis.CONFIG.disabledProviders().containsKey(id)) continue;
+                if (disabledProviders.containsKey(providerIds.get(provider))) continue;
                 alwaysVisibleProviders.add(provider);
             }
 
-            ALWAYS_VISIBLE_PROVIDERS_BY_TYPE.put(
+            alwaysVisibleProvidersByType.put(
                     targetType,
                     Collections.unmodifiableList(alwaysVisibleProviders)
             );
         });
+
+        lists = new ProviderLists(
+                sortedTargetTypes,
+                Collections.unmodifiableList(liveProviders),
+                sortedProvidersByType,
+                alwaysVisibleProvidersByType,
+                new ConcurrentHashMap<>(),
+                new ConcurrentHashMap<>()
+        );
     }
 
     public static List<TargetType<?>> sortedTargetTypes() {
-        return SORTED_TARGET_TYPES_VIEW;
+        return lists.sortedTargetTypes();
     }
 
     public static List<InformationProvider<?, ?>> liveProviders() {
-        return LIVE_PROVIDERS_VIEW;
+        return lists.liveProviders();
     }
 
-    @SuppressWarnings("unchecked")
     public static <T> List<InformationProvider<T, ?>> getProviders(TargetType<T> type, boolean sneaking) {
-        return (List<InformationProvider<T, ?>>) (Object) (sneaking ? PROVIDERS_BY_TYPE : ALWAYS_VISIBLE_PROVIDERS_BY_TYPE).get(type);
+        return lists.providersOf(type, sneaking);
+    }
+
+    /**
+     * Get the providers of the given target type which can apply to the
+     * given target, as determined by their applicability predicates
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<InformationProvider<T, ?>> getProviders(TargetType<T> type, T target, boolean sneaking) {
+        var subject = type.subjectOf(target);
+
+        // Filtered lists are cached in the same set of lists they are derived from, so
+        // that a concurrent rebuild can never leave a stale filtered list behind
+        var lists = TooltipObjectManager.lists;
+        if (subject == null) return lists.providersOf(type, sneaking);
+
+        var providersBySubject = (sneaking ? lists.providersBySubject() : lists.alwaysVisibleProvidersBySubject()).computeIfAbsent(type, $ -> new ConcurrentHashMap<>());
+        return (List<InformationProvider<T, ?>>) (Object) providersBySubject.computeIfAbsent(subject, $ -> {
+            var applicableProviders = new ArrayList<InformationProvider<?, ?>>();
+            for (var provider : lists.providersOf(type, sneaking)) {
+                if (provider.appliesTo(subject)) applicableProviders.add(provider);
+            }
+
+            return Collections.unmodifiableList(applicableProviders);
+        });
+    }
+
+    // The *BySubject maps hold provider lists filtered by applicability, per subject (block, fluid
+    // or entity class) - these are populated lazily from both the client and the server thread
+    private record ProviderLists(List<TargetType<?>> sortedTargetTypes, List<InformationProvider<?, ?>> liveProviders,
+                                 Map<TargetType<?>, List<InformationProvider<?, ?>>> providersByType,
+                                 Map<TargetType<?>, List<InformationProvider<?, ?>>> alwaysVisibleProvidersByType,
+                                 Map<TargetType<?>, Map<Object, List<InformationProvider<?, ?>>>> providersBySubject,
+                                 Map<TargetType<?>, Map<Object, List<InformationProvider<?, ?>>>> alwaysVisibleProvidersBySubject) {
+
+        private static final ProviderLists EMPTY = new ProviderLists(List.of(), List.of(), Map.of(), Map.of(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+        @SuppressWarnings("unchecked")
+        private <T> List<InformationProvider<T, ?>> providersOf(TargetType<T> type, boolean sneaking) {
+            return (List<InformationProvider<T, ?>>) (Object) (sneaking ? this.providersByType : this.alwaysVisibleProvidersByType).get(type);
+        }
     }
 }
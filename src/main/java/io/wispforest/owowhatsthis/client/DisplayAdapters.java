@@ -1,11 +1,15 @@
 package io.wispforest.owowhatsthis.client;
 
 import io.wispforest.owowhatsthis.information.InformationProvider;
+import io.wispforest.owowhatsthis.information.TargetKey;
 import io.wispforest.owowhatsthis.information.TargetType;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.minecraft.entity.Entity;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Environment(EnvType.CLIENT)
@@ -14,6 +18,14 @@ public class DisplayAdapters {
     private static final Map<TargetType<?>, TargetType.DisplayAdapter<?>> TYPE_DISPLAY_ADAPTERS = new HashMap<>();
     private static final Map<InformationProvider<?, ?>, InformationProvider.DisplayAdapter<?>> INFORMATION_DISPLAY_ADAPTERS = new HashMap<>();
 
+    private static final int PREVIEW_CACHE_SIZE = 16;
+    private static final Map<PreviewKey, TargetType.PreviewData> PREVIEW_CACHE = new LinkedHashMap<>(PREVIEW_CACHE_SIZE, .75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PreviewKey, TargetType.PreviewData> eldest) {
+            return this.size() > PREVIEW_CACHE_SIZE;
+        }
+    };
+
     public static <T> void register(TargetType<T> targetType, TargetType.DisplayAdapter<T> displayAdapter) {
         TYPE_DISPLAY_ADAPTERS.put(targetType, displayAdapter);
     }
@@ -23,6 +35,38 @@ public class DisplayAdapters {
         return (TargetType.DisplayAdapter<T>) TYPE_DISPLAY_ADAPTERS.get(targetType);
     }
 
+    /**
+     * Get the preview of the given target, which is only built anew if no preview
+     * for the same target key and {@linkplain TargetType.DisplayAdapter#previewVersion(Object) version}
+     * was built recently - unless the display adapter {@linkplain TargetType.DisplayAdapter#cachePreview(Object) opts out}
+     */
+    public static <T> TargetType.PreviewData preview(TargetType<T> targetType, T target, @Nullable Object version) {
+        var adapter = get(targetType);
+        if (!adapter.cachePreview(target)) return adapter.buildPreview(target);
+
+        var key = new PreviewKey(targetType, targetType.keyOf(target), version);
+
+        var preview = PREVIEW_CACHE.get(key);
+        if (preview == null) PREVIEW_CACHE.put(key, preview = adapter.buildPreview(target));
+
+        return preview;
+    }
+
+    /**
+     * Drop the cached previews of the given entity. Entity previews hold on to
+     * their entity, so this must happen as soon as the entity is unloaded
+     */
+    public static void forgetPreviews(Entity entity) {
+        if (PREVIEW_CACHE.isEmpty()) return;
+
+        var key = TargetType.ENTITY.keyOf(entity);
+        PREVIEW_CACHE.keySet().removeIf(previewKey -> (previewKey.type == TargetType.ENTITY || previewKey.type == TargetType.PLAYER) && previewKey.key.equals(key));
+    }
+
+    public static void clearPreviewCache() {
+        PREVIEW_CACHE.clear();
+    }
+
 
     public static <D> void register(InformationProvider<?, D> informationProvider, InformationProvider.DisplayAdapter<D> displayAdapter) {
         INFORMATION_DISPLAY_ADAPTERS.put(informationProvider, displayAdapter);
@@ -32,4 +76,6 @@ public class DisplayAdapters {
     public static <D> InformationProvider.DisplayAdapter<D> get(InformationProvider<?, D> informationProvider) {
         return (InformationProvider.DisplayAdapter<D>) INFORMATION_DISPLAY_ADAPTERS.get(informationProvider);
     }
+
+    private record PreviewKey(TargetType<?> type, TargetKey key, @Nullable Object version) {}
 }
@@ -64,6 +64,7 @@ public class OwoWhatsThisClient implements ClientModInitializer {
         }
 
         OwoWhatsThisHUD.initialize();
+        OwoWhatsThisDebugOverlay.initialize();
         OwoWhatsThisNetworking.initializeClient();
 
         ConfigScreen.registerProvider("owo-whats-this", OwoWhatsThisConfigScreen::new);
@@ -0,0 +1,86 @@
+package io.wispforest.owowhatsthis.client;
+
+import io.wispforest.owo.ui.component.Components;
+import io.wispforest.owo.ui.container.Containers;
+import io.wispforest.owo.ui.container.FlowLayout;
+import io.wispforest.owo.ui.core.*;
+import io.wispforest.owo.ui.hud.Hud;
+import io.wispforest.owowhatsthis.OwoWhatsThis;
+import io.wispforest.owowhatsthis.TooltipMetrics;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.Identifier;
+
+import java.util.Comparator;
+
+/**
+ * Optional overlay which displays the metrics collected
+ * by {@link TooltipMetrics} on the client
+ */
+public class OwoWhatsThisDebugOverlay {
+
+    public static final Identifier COMPONENT_ID = OwoWhatsThis.id("debug");
+
+    private static final int UPDATE_INTERVAL = 10;
+    private static final int MAX_PROVIDERS = 5;
+
+    private static int ticks = 0;
+    private static boolean shown = false;
+
+    public static void initialize() {
+        Hud.add(COMPONENT_ID, () -> Containers.verticalFlow(Sizing.content(), Sizing.content())
+                .padding(Insets.of(3))
+                .positioning(Positioning.absolute(2, 2)));
+
+        ClientTickEvents.END_CLIENT_TICK.register(client -> {
+            if (!(Hud.getComponent(COMPONENT_ID) instanceof FlowLayout view)) return;
+
+            if (!OwoWhatsThis.CONFIG.debugOverlay() || client.world == null) {
+                if (shown) {
+                    view.clearChildren();
+                    view.surface(Surface.BLANK);
+                    shown = false;
+                }
+                return;
+            }
+
+            if (shown && ++ticks < UPDATE_INTERVAL) return;
+            ticks = 0;
+            shown = true;
+
+            view.surface(Surface.flat(0x77000000));
+            rebuild(view);
+        });
+    }
+
+    private static void rebuild(FlowLayout view) {
+        view.<FlowLayout>configure(layout -> {
+            layout.clearChildren();
+
+            layout.child(line("rebuild", micros(TooltipMetrics.CLIENT_REBUILD_TIME.mean()) + " avg, " + micros(TooltipMetrics.CLIENT_REBUILD_TIME.max()) + " max"));
+            layout.child(line("round trip", millis(TooltipMetrics.CLIENT_ROUND_TRIP_TIME.mean()) + " avg, " + millis(TooltipMetrics.CLIENT_ROUND_TRIP_TIME.max()) + " max"));
+            layout.child(line("received", TooltipMetrics.CLIENT_RECEIVED_BYTES.count() + " updates, " + Math.round(TooltipMetrics.CLIENT_RECEIVED_BYTES.mean()) + "B avg"));
+
+            TooltipMetrics.clientProviderTimes().entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> -entry.getValue().total()))
+                    .limit(MAX_PROVIDERS)
+                    .forEach(entry -> layout.child(line(
+                            String.valueOf(OwoWhatsThis.INFORMATION_PROVIDER.getId(entry.getKey())),
+                            micros(entry.getValue().mean()) + " avg, " + micros(entry.getValue().max()) + " max"
+                    )));
+        });
+    }
+
+    private static Component line(String label, String value) {
+        return Components.label(Text.literal(label + ": ").append(Text.literal(value).formatted(Formatting.GRAY))).shadow(true);
+    }
+
+    private static String micros(double nanos) {
+        return Math.round(nanos / 1000) + "µs";
+    }
+
+    private static String millis(double nanos) {
+        return Math.round(nanos / 1_000_000) + "ms";
+    }
+}
@@ -1,5 +1,7 @@
 package io.wispforest.owowhatsthis.client;
 
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.wispforest.endec.SerializationContext;
 import io.wispforest.owo.serialization.RegistriesAttribute;
 import io.wispforest.owo.ui.container.Containers;
@@ -8,146 +10,351 @@ import io.wispforest.owo.ui.container.GridLayout;
 import io.wispforest.owo.ui.core.*;
 import io.wispforest.owo.ui.hud.Hud;
 import io.wispforest.owowhatsthis.OwoWhatsThis;
-import io.wispforest.owowhatsthis.RateLimitTracker;
+import io.wispforest.owowhatsthis.TooltipMetrics;
 import io.wispforest.owowhatsthis.TooltipObjectManager;
+import io.wispforest.owowhatsthis.client.component.CachedRenderLayout;
+import io.wispforest.owowhatsthis.client.component.OffscreenBuffer;
 import io.wispforest.owowhatsthis.information.InformationProvider;
+import io.wispforest.owowhatsthis.information.TargetKey;
 import io.wispforest.owowhatsthis.information.TargetType;
 import io.wispforest.owowhatsthis.mixin.PlayerListHudAccessor;
 import io.wispforest.owowhatsthis.network.DataUpdatePacket;
 import io.wispforest.owowhatsthis.network.OwoWhatsThisNetworking;
 import io.wispforest.owowhatsthis.network.RequestDataPacket;
+import io.wispforest.owowhatsthis.network.UnsubscribePacket;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientEntityEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
-import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
 import net.minecraft.client.MinecraftClient;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.registry.DynamicRegistryManager;
 import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 public class OwoWhatsThisHUD {
 
     public static final Identifier COMPONENT_ID = OwoWhatsThis.id("tooltip");
 
     private static final Map<InformationProvider<?, ?>, Object> PROVIDER_DATA = new HashMap<>();
-    private static final RateLimitTracker rateLimit = new RateLimitTracker();
 
-    private static int currentHash = 0;
+    // Pooled scratch buffer which request targets are encoded into, confined to the client thread
+    private static final PacketByteBuf REQUEST_BUFFER = new PacketByteBuf(PooledByteBufAllocator.DEFAULT.heapBuffer(32));
+
+    // Retained state of the currently displayed tooltip - rows are keyed by
+    // their provider and only re-inflated when the data they display changes
+    private static final Map<InformationProvider<?, ?>, ProviderRow> ROWS = new HashMap<>();
+    private static final List<InformationProvider<?, ?>> DISPLAYED_PROVIDERS = new ArrayList<>();
+    private static final List<InformationProvider<?, ?>> NEXT_PROVIDERS = new ArrayList<>();
+
+    private static final TargetTracker TARGET_TRACKER = new TargetTracker();
+
+    private static @Nullable TargetType<?> displayedType = null;
+    private static @Nullable TargetKey displayedKey = null;
+    private static @Nullable Object displayedPreviewVersion = null;
+    private static @Nullable FlowLayout infoView = null;
+    private static int displayedColor = 0, displayedBorderColor = 0;
+
+    private static @Nullable TargetType<?> currentType = null;
+    private static @Nullable TargetKey currentKey = null;
+
+    // Nonces are handed out sequentially, so a response to
+    // an older request can never be mistaken for a current one
+    private static int nextNonce = 1;
+    private static int currentNonce = 0;
+    private static boolean subscribed = false;
+    private static int requestDwellTicks = 0;
+    private static long requestSentAt = 0;
 
-    @SuppressWarnings("unchecked")
     public static void initialize() {
 
-        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> rateLimit.reset());
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
+            currentType = null;
+            currentKey = null;
+            currentNonce = 0;
+            subscribed = false;
+            requestSentAt = 0;
+            TARGET_TRACKER.reset();
+            forgetDisplayedTarget();
+            DisplayAdapters.clearPreviewCache();
+        });
+
+        ClientEntityEvents.ENTITY_UNLOAD.register((entity, world) -> DisplayAdapters.forgetPreviews(entity));
 
         Hud.add(COMPONENT_ID, () -> {
-            return Containers.verticalFlow(Sizing.content(), Sizing.content())
+            return new CachedRenderLayout(Sizing.content(), Sizing.content(), FlowLayout.Algorithm.VERTICAL)
                     .padding(Insets.of(3))
                     .positioning(Positioning.relative(50, 0))
                     .margins(Insets.top(5));
         });
 
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
-            if (client.world == null) return;
+            if (client.world == null) {
+                OffscreenBuffer.releaseAll();
+                return;
+            }
+
+            OffscreenBuffer.sweep();
 
             var component = Hud.getComponent(COMPONENT_ID);
-            if (!(component instanceof FlowLayout view)) return;
+            if (!(component instanceof FlowLayout view)) {
+                unsubscribe();
+                return;
+            }
+
+            tick(client, view);
+        });
+    }
+
+    private static void tick(MinecraftClient client, FlowLayout view) {
+        if (!OwoWhatsThis.CONFIG.enableTooltip() || client.cameraEntity == null || ((PlayerListHudAccessor) client.inGameHud.getPlayerListHud()).whatsThis$isVisible()) {
+            TARGET_TRACKER.reset();
+            hide(view);
+            return;
+        }
+
+        // The tooltip is covered by the screen anyway, leave everything as it is until
+        // the screen is closed - the server does not need to keep pushing data meanwhile,
+        // the request goes out again as soon as the tooltip is visible
+        if (client.currentScreen != null) {
+            unsubscribe();
+            return;
+        }
+
+        if (!TARGET_TRACKER.update(client.cameraEntity, client.world)) {
+            hide(view);
+            return;
+        }
+
+        update(client, view, TARGET_TRACKER.type(), TARGET_TRACKER.target());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void update(MinecraftClient client, FlowLayout view, TargetType<?> type, Object transformed) {
+        long startTime = System.nanoTime();
+
+        var key = ((TargetType<Object>) type).keyOf(transformed);
+        final var targetChanged = type != currentType || !key.equals(currentKey);
+
+        if (targetChanged) {
+            PROVIDER_DATA.clear();
 
-            final var target = OwoWhatsThis.raycast(client.cameraEntity, 1);
+            // Stop updates for the previous target right away, the request
+            // for the new one only goes out once the crosshair has settled
+            unsubscribe();
+            currentNonce = 0;
+            requestDwellTicks = 0;
+        }
+
+        boolean rowsChanged = false;
+
+        NEXT_PROVIDERS.clear();
+        for (var provider : TooltipObjectManager.getProviders((TargetType<Object>) type, transformed, client.player.isSneaking())) {
+            Object data;
+            if (provider.client()) {
+                long startTime = System.nanoTime();
+                data = ((InformationProvider<Object, ?>) provider).transformer().apply(client.player, client.world, transformed);
+                TooltipMetrics.clientProviderTime(provider).record(System.nanoTime() - startTime);
+            } else {
+                data = PROVIDER_DATA.get(provider);
+            }
+
+            if (data == null) continue;
+
+            var row = ROWS.get(provider);
+            if (row == null || !Objects.equals(row.data, data)) {
+                ROWS.put(provider, new ProviderRow(
+                        data,
+                        ((InformationProvider.DisplayAdapter<Object>) DisplayAdapters.get(provider)).build(data)
+                ));
+                rowsChanged = true;
+            }
+
+            NEXT_PROVIDERS.add(provider);
+        }
+
+        if (!NEXT_PROVIDERS.equals(DISPLAYED_PROVIDERS)) {
+            ROWS.keySet().retainAll(NEXT_PROVIDERS);
+            DISPLAYED_PROVIDERS.clear();
+            DISPLAYED_PROVIDERS.addAll(NEXT_PROVIDERS);
+            rowsChanged = true;
+        }
+
+        var displayAdapter = (TargetType.DisplayAdapter<Object>) DisplayAdapters.get(type);
+        var previewVersion = displayAdapter.previewVersion(transformed);
+
+        if (infoView == null || type != displayedType || !key.equals(displayedKey) || !Objects.equals(previewVersion, displayedPreviewVersion)) {
+            displayedType = type;
+            displayedKey = key;
+            displayedPreviewVersion = previewVersion;
 
             view.<FlowLayout>configure(layout -> {
-                view.clearChildren();
-                view.surface(Surface.BLANK);
-
-                if (!OwoWhatsThis.CONFIG.enableTooltip()) return;
-                if (((PlayerListHudAccessor) MinecraftClient.getInstance().inGameHud.getPlayerListHud()).whatsThis$isVisible()) return;
-
-                for (var type : TooltipObjectManager.sortedTargetTypes()) {
-                    var transformed = type.transformer().apply(client.world, target);
-                    if (transformed == null) continue;
-
-                    view.surface(Surface.flat(OwoWhatsThis.CONFIG.tooltipColor().argb()).and(Surface.outline(OwoWhatsThis.CONFIG.tooltipBorderColor().argb())));
-
-                    view.child(
-                            Containers.grid(Sizing.content(), Sizing.content(), 2, 2).<GridLayout>configure(grid -> {
-                                grid.verticalAlignment(VerticalAlignment.CENTER);
-
-                                final var preview = ((TargetType.DisplayAdapter<Object>) DisplayAdapters.get(type)).buildPreview(transformed);
-
-                                grid.child(Containers.verticalFlow(Sizing.content(), Sizing.content()).child(preview.preview()).padding(Insets.right(5)), 0, 0);
-                                grid.child(preview.title(), 0, 1);
-
-                                grid.child(
-                                        Containers.verticalFlow(Sizing.content(), Sizing.content()).<FlowLayout>configure(infoView -> {
-                                            infoView.gap(4).margins(Insets.top(5));
-
-                                            int newHash = transformed.hashCode();
-                                            final var targetChanged = newHash != currentHash;
-
-                                            if (targetChanged) {
-                                                PROVIDER_DATA.clear();
-                                            }
-
-                                            boolean mustRefresh = false;
-                                            for (var provider : TooltipObjectManager.getProviders(type, client.player.isSneaking())) {
-                                                if (provider.client()) {
-                                                    var infoTransformed = ((InformationProvider<Object, ?>) provider).transformer().apply(client.player, client.world, transformed);
-                                                    if (infoTransformed == null) continue;
-
-                                                    infoView.child(
-                                                            ((InformationProvider.DisplayAdapter<Object>) DisplayAdapters.get(provider)).build(infoTransformed)
-                                                    );
-                                                } else {
-                                                    if (provider.live()) {
-                                                        mustRefresh = true;
-                                                    }
-                                                    if (!PROVIDER_DATA.containsKey(provider)) continue;
-
-                                                    infoView.child(
-                                                            ((InformationProvider.DisplayAdapter<Object>) DisplayAdapters.get(provider)).build(PROVIDER_DATA.get(provider))
-                                                    );
-                                                }
-                                            }
-
-                                            if (targetChanged) rateLimit.setOverride(0);
-                                            if ((targetChanged || mustRefresh) && rateLimit.update(client.world.getTime())) {
-                                                var targetBuf = PacketByteBufs.create();
-                                                targetBuf.writeVarInt(OwoWhatsThis.TARGET_TYPE.getRawId(type));
-                                                ((TargetType<Object>) type).serializer().accept(transformed, targetBuf);
-                                                OwoWhatsThisNetworking.CHANNEL.clientHandle().send(new RequestDataPacket(newHash, targetBuf));
-                                            }
-
-                                            currentHash = newHash;
-                                        }),
-                                        1,
-                                        1
-                                );
-                            })
-                    );
-
-                    return;
-                }
+                layout.clearChildren();
+                updateSurface(layout, true);
+
+                layout.child(
+                        Containers.grid(Sizing.content(), Sizing.content(), 2, 2).<GridLayout>configure(grid -> {
+                            grid.verticalAlignment(VerticalAlignment.CENTER);
+
+                            final var preview = DisplayAdapters.preview((TargetType<Object>) type, transformed, previewVersion);
+
+                            grid.child(Containers.verticalFlow(Sizing.content(), Sizing.content()).child(preview.preview()).padding(Insets.right(5)), 0, 0);
+                            grid.child(preview.title(), 0, 1);
+
+                            infoView = Containers.verticalFlow(Sizing.content(), Sizing.content());
+                            infoView.gap(4).margins(Insets.top(5));
+                            populateInfoView(infoView);
+
+                            grid.child(infoView, 1, 1);
+                        })
+                );
             });
+
+            markDirty(view);
+            TooltipMetrics.CLIENT_REBUILD_TIME.record(System.nanoTime() - startTime);
+        } else {
+            boolean surfaceChanged = updateSurface(view, false);
+            if (rowsChanged) infoView.<FlowLayout>configure(OwoWhatsThisHUD::populateInfoView);
+
+            // Ticks which leave the tooltip as it is would only drown out the actual rebuilds
+            if (surfaceChanged || rowsChanged) {
+                markDirty(view);
+                TooltipMetrics.CLIENT_REBUILD_TIME.record(System.nanoTime() - startTime);
+            }
+        }
+
+        currentType = type;
+        currentKey = key;
+
+        // The server keeps pushing live data for as long as we stay subscribed, so a request
+        // only needs to go out once the target has stayed the same for requestDwellTime ticks
+        if (!subscribed && ++requestDwellTicks > OwoWhatsThis.CONFIG.requestDwellTime()) {
+            REQUEST_BUFFER.clear();
+            REQUEST_BUFFER.writeVarInt(OwoWhatsThis.TARGET_TYPE.getRawId(type));
+            ((TargetType<Object>) type).serializer().accept(transformed, REQUEST_BUFFER);
+
+            currentNonce = nextNonce++;
+            requestSentAt = System.nanoTime();
+            OwoWhatsThisNetworking.CHANNEL.clientHandle().send(new RequestDataPacket(currentNonce, new PacketByteBuf(Unpooled.copiedBuffer(REQUEST_BUFFER))));
+            subscribed = true;
+        }
+    }
+
+    private static void populateInfoView(FlowLayout layout) {
+        layout.clearChildren();
+        for (var provider : DISPLAYED_PROVIDERS) {
+            layout.child(ROWS.get(provider).component);
+        }
+    }
+
+    private static boolean updateSurface(FlowLayout view, boolean force) {
+        int color = OwoWhatsThis.CONFIG.tooltipColor().argb();
+        int borderColor = OwoWhatsThis.CONFIG.tooltipBorderColor().argb();
+        if (!force && color == displayedColor && borderColor == displayedBorderColor) return false;
+
+        displayedColor = color;
+        displayedBorderColor = borderColor;
+        view.surface(Surface.flat(color).and(Surface.outline(borderColor)));
+        return true;
+    }
+
+    private static void markDirty(FlowLayout view) {
+        if (view instanceof CachedRenderLayout cached) cached.markDirty();
+    }
+
+    private static void unsubscribe() {
+        if (!subscribed) return;
+
+        OwoWhatsThisNetworking.CHANNEL.clientHandle().send(new UnsubscribePacket(currentNonce));
+        subscribed = false;
+        currentNonce = 0;
+    }
+
+    private static void hide(FlowLayout view) {
+        unsubscribe();
+
+        if (currentKey != null) {
+            currentType = null;
+            currentKey = null;
+            currentNonce = 0;
+            PROVIDER_DATA.clear();
+        }
+
+        if (infoView == null) return;
+
+        view.<FlowLayout>configure(layout -> {
+            layout.clearChildren();
+            layout.surface(Surface.BLANK);
         });
+
+        markDirty(view);
+        forgetDisplayedTarget();
+    }
+
+    private static void forgetDisplayedTarget() {
+        displayedType = null;
+        displayedKey = null;
+        displayedPreviewVersion = null;
+        infoView = null;
+
+        ROWS.clear();
+        DISPLAYED_PROVIDERS.clear();
     }
 
-    @SuppressWarnings("ConstantConditions")
+    @SuppressWarnings({"ConstantConditions", "unchecked"})
     public static void readProviderData(DynamicRegistryManager registries, DataUpdatePacket message) {
-        if (message.nonce() != currentHash) return;
-        rateLimit.clearOverride();
+        if (message.nonce() == 0 || message.nonce() != currentNonce) {
+            message.data().release();
+            return;
+        }
 
-        for (var liveProvider : TooltipObjectManager.liveProviders()) PROVIDER_DATA.remove(liveProvider);
+        if (requestSentAt != 0) {
+            TooltipMetrics.CLIENT_ROUND_TRIP_TIME.record(System.nanoTime() - requestSentAt);
+            requestSentAt = 0;
+        }
 
+        final var ctx = SerializationContext.attributes(RegistriesAttribute.of(registries));
         final var buffer = message.data();
+        TooltipMetrics.CLIENT_RECEIVED_BYTES.record(buffer.readableBytes());
         final var dataCount = buffer.readVarInt();
 
+        var receivedData = new HashMap<InformationProvider<?, ?>, Object>();
         for (int i = 0; i < dataCount; i++) {
             var provider = OwoWhatsThis.INFORMATION_PROVIDER.get(buffer.readVarInt());
-            var data = buffer.read(SerializationContext.attributes(RegistriesAttribute.of(registries)), provider.endec());
-            PROVIDER_DATA.put(provider, data);
+
+            switch (buffer.readByte()) {
+                case DataUpdatePacket.FULL -> receivedData.put(provider, buffer.read(ctx, provider.endec()));
+                case DataUpdatePacket.UNCHANGED -> {
+                    var previous = PROVIDER_DATA.get(provider);
+                    if (previous != null) receivedData.put(provider, previous);
+                }
+                case DataUpdatePacket.LIST_DELTA -> {
+                    var previous = (List<Object>) PROVIDER_DATA.getOrDefault(provider, List.of());
+
+                    int size = buffer.readVarInt();
+                    var elements = new ArrayList<>(size);
+                    for (int j = 0; j < size; j++) {
+                        elements.add(j < previous.size() ? previous.get(j) : null);
+                    }
+
+                    int changedCount = buffer.readVarInt();
+                    for (int j = 0; j < changedCount; j++) {
+                        elements.set(buffer.readVarInt(), buffer.read(ctx, provider.listElementEndec()));
+                    }
+
+                    receivedData.put(provider, elements);
+                }
+                default -> throw new IllegalStateException("Unknown provider data update type");
+            }
         }
 
         buffer.release();
+
+        for (var liveProvider : TooltipObjectManager.liveProviders()) PROVIDER_DATA.remove(liveProvider);
+        PROVIDER_DATA.putAll(receivedData);
     }
 
+    private record ProviderRow(Object data, Component component) {}
+
 }
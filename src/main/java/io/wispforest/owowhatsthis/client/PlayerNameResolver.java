@@ -1,42 +1,93 @@
 package io.wispforest.owowhatsthis.client;
 
+import io.wispforest.owowhatsthis.OwoWhatsThis;
+import io.wispforest.owowhatsthis.information.InformationProviders;
+import io.wispforest.owowhatsthis.network.OwoWhatsThisNetworking;
+import net.minecraft.entity.passive.TameableEntity;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.text.Text;
 import net.minecraft.util.Util;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Resolves player names for UUIDs, fetching unknown profiles from the session
+ * service on an IO worker. Names are kept in a bounded LRU cache - failed lookups are only
+ * remembered for a short while so that they are retried eventually, and concurrent lookups
+ * of the same profile share a single fetch
+ * <p>
+ * Once a fetch succeeds, the new name is pushed to every player currently
+ * looking at an entity owned by that profile
+ */
 public class PlayerNameResolver {
 
-    private static final Map<UUID, Text> NAME_CACHE = new HashMap<>();
+    private static final int MAX_ENTRIES = 4096;
+    private static final long POSITIVE_TTL = 60 * 60 * 1000;
+    private static final long NEGATIVE_TTL = 5 * 60 * 1000;
+
+    private static final Map<UUID, Entry> NAME_CACHE = new LinkedHashMap<>(64, .75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+            return this.size() > MAX_ENTRIES;
+        }
+    };
+
+    private static final Set<UUID> PENDING_FETCHES = ConcurrentHashMap.newKeySet();
 
     public static @Nullable Text getName(MinecraftServer server, UUID uuid) {
-        if (NAME_CACHE.containsKey(uuid)) return NAME_CACHE.get(uuid);
+        long now = Util.getMeasuringTimeMs();
+        synchronized (NAME_CACHE) {
+            var entry = NAME_CACHE.get(uuid);
+            if (entry != null && now < entry.expiresAt) return entry.name;
+        }
 
         var presentPlayer = server.getPlayerManager().getPlayer(uuid);
-        if (presentPlayer != null) {
-            NAME_CACHE.put(uuid, presentPlayer.getName());
-            return presentPlayer.getName();
-        }
+        if (presentPlayer != null) return cache(uuid, presentPlayer.getName(), now);
 
         var userCache = server.getUserCache();
-        if (userCache != null && userCache.getByUuid(uuid).isPresent()) {
-            NAME_CACHE.put(uuid, Text.literal(userCache.getByUuid(uuid).get().getName()));
-            return NAME_CACHE.get(uuid);
+        if (userCache != null) {
+            var profile = userCache.getByUuid(uuid);
+            if (profile.isPresent()) return cache(uuid, Text.literal(profile.get().getName()), now);
+        }
+
+        if (PENDING_FETCHES.add(uuid)) {
+            Util.getIoWorkerExecutor().execute(() -> fetchName(server, uuid));
         }
 
-        Util.getIoWorkerExecutor().submit(() -> {
+        return null;
+    }
+
+    private static void fetchName(MinecraftServer server, UUID uuid) {
+        Text name = null;
+        try {
             var profile = server.getSessionService().fetchProfile(uuid, false);
-            if (profile == null) return;
+            if (profile != null) name = Text.literal(profile.profile().getName());
+        } catch (Exception e) {
+            OwoWhatsThis.LOGGER.debug("Could not fetch the profile of {}", uuid, e);
+        }
 
-            NAME_CACHE.put(uuid, Text.literal(profile.profile().getName()));
-        });
+        cache(uuid, name, Util.getMeasuringTimeMs());
+        PENDING_FETCHES.remove(uuid);
 
-        NAME_CACHE.put(uuid, null);
-        return null;
+        if (name == null) return;
+        server.execute(() -> OwoWhatsThisNetworking.refresh(
+                InformationProviders.ENTITY_OWNER,
+                target -> target instanceof TameableEntity tameable && uuid.equals(tameable.getOwnerUuid())
+        ));
+    }
+
+    private static @Nullable Text cache(UUID uuid, @Nullable Text name, long now) {
+        synchronized (NAME_CACHE) {
+            NAME_CACHE.put(uuid, new Entry(name, now + (name != null ? POSITIVE_TTL : NEGATIVE_TTL)));
+        }
+
+        return name;
     }
 
+    private record Entry(@Nullable Text name, long expiresAt) {}
 }
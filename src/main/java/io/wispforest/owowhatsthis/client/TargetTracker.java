@@ -0,0 +1,113 @@
+package io.wispforest.owowhatsthis.client;
+
+import io.wispforest.owowhatsthis.OwoWhatsThis;
+import io.wispforest.owowhatsthis.TooltipObjectManager;
+import io.wispforest.owowhatsthis.information.TargetType;
+import net.minecraft.block.BlockState;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.hit.EntityHitResult;
+import net.minecraft.util.hit.HitResult;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resolves the target the camera entity is looking at. As long as neither the camera
+ * nor the block or entity it hit have moved, the previous raycast and target are reused -
+ * a full raycast still happens every {@link #REFRESH_INTERVAL} ticks to pick up entities
+ * moving into view or blocks being placed in front of the target
+ */
+class TargetTracker {
+
+    private static final int REFRESH_INTERVAL = 5;
+
+    private @Nullable Entity camera = null;
+    private @Nullable World world = null;
+    private @Nullable Vec3d eyePos = null;
+    private float yaw, pitch;
+    private boolean includeFluids;
+    private int ticksSinceRaycast = 0;
+
+    private @Nullable HitResult hit = null;
+    private @Nullable BlockState hitState = null;
+    private @Nullable Box hitBox = null;
+
+    private @Nullable TargetType<?> type = null;
+    private @Nullable Object target = null;
+
+    /**
+     * Update the tracked target
+     *
+     * @return {@code true} if the camera entity is looking at
+     * something for which a target type exists
+     */
+    boolean update(Entity camera, World world) {
+        var eyePos = camera.getEyePos();
+
+        if (this.isStale(camera, world, eyePos)) {
+            this.camera = camera;
+            this.world = world;
+            this.eyePos = eyePos;
+            this.yaw = camera.getYaw();
+            this.pitch = camera.getPitch();
+            this.includeFluids = OwoWhatsThis.CONFIG.showFluids();
+            this.ticksSinceRaycast = 0;
+
+            this.hit = OwoWhatsThis.raycast(camera, 1);
+            this.hitState = this.hit instanceof BlockHitResult blockHit ? world.getBlockState(blockHit.getBlockPos()) : null;
+            this.hitBox = this.hit instanceof EntityHitResult entityHit ? entityHit.getEntity().getBoundingBox() : null;
+
+            this.resolve(world);
+        }
+
+        return this.target != null;
+    }
+
+    void reset() {
+        this.camera = null;
+        this.world = null;
+        this.hit = null;
+        this.hitState = null;
+        this.hitBox = null;
+        this.type = null;
+        this.target = null;
+    }
+
+    @Nullable TargetType<?> type() {
+        return this.type;
+    }
+
+    @Nullable Object target() {
+        return this.target;
+    }
+
+    private boolean isStale(Entity camera, World world, Vec3d eyePos) {
+        if (++this.ticksSinceRaycast >= REFRESH_INTERVAL || this.hit == null) return true;
+        if (camera != this.camera || world != this.world || this.includeFluids != OwoWhatsThis.CONFIG.showFluids()) return true;
+        if (!eyePos.equals(this.eyePos) || camera.getYaw() != this.yaw || camera.getPitch() != this.pitch) return true;
+
+        if (this.hit instanceof BlockHitResult blockHit && blockHit.getType() == HitResult.Type.BLOCK) {
+            return world.getBlockState(blockHit.getBlockPos()) != this.hitState;
+        } else if (this.hit instanceof EntityHitResult entityHit) {
+            return entityHit.getEntity().isRemoved() || !entityHit.getEntity().getBoundingBox().equals(this.hitBox);
+        }
+
+        return false;
+    }
+
+    private void resolve(World world) {
+        this.type = null;
+        this.target = null;
+
+        for (var type : TooltipObjectManager.sortedTargetTypes()) {
+            var transformed = type.transformer().apply(world, this.hit);
+            if (transformed == null) continue;
+
+            this.type = type;
+            this.target = transformed;
+            return;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.wispforest.owowhatsthis.client.component;
+
+import io.wispforest.owo.ui.component.EntityComponent;
+import io.wispforest.owo.ui.container.FlowLayout;
+import io.wispforest.owo.ui.core.OwoUIDrawContext;
+import io.wispforest.owo.ui.core.Sizing;
+import io.wispforest.owowhatsthis.OwoWhatsThis;
+import io.wispforest.owowhatsthis.OwoWhatsThisConfigModel.EntityPreviewMode;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A flow layout which, if {@code cacheTooltipRender} is enabled, renders its contents
+ * into an {@link OffscreenBuffer} and draws that as a single textured quad until
+ * it is {@linkplain #markDirty() marked dirty} or moves
+ * <p>
+ * Contents which contain an animated {@link EntityComponent} need
+ * to be re-drawn every frame, so those are always drawn directly
+ */
+public class CachedRenderLayout extends FlowLayout {
+
+    protected final OffscreenBuffer buffer = new OffscreenBuffer();
+
+    protected int version = 0;
+    protected int renderedVersion = -1;
+
+    protected boolean animated = false;
+    protected int animatedVersion = -1;
+    protected @Nullable EntityPreviewMode animatedPreviewMode = null;
+
+    public CachedRenderLayout(Sizing horizontalSizing, Sizing verticalSizing, Algorithm algorithm) {
+        super(horizontalSizing, verticalSizing, algorithm);
+    }
+
+    /**
+     * Invalidate the cached render, causing the contents
+     * of this layout to be re-drawn during the next frame
+     */
+    public void markDirty() {
+        this.version++;
+    }
+
+    @Override
+    public void draw(OwoUIDrawContext context, int mouseX, int mouseY, float partialTicks, float delta) {
+        if (!OwoWhatsThis.CONFIG.cacheTooltipRender() || this.children.isEmpty() || this.isAnimated()) {
+            if (!OwoWhatsThis.CONFIG.cacheTooltipRender()) this.buffer.release();
+
+            super.draw(context, mouseX, mouseY, partialTicks, delta);
+            return;
+        }
+
+        if (this.renderedVersion != this.version || !this.buffer.holds(this.x, this.y, this.width, this.height)) {
+            this.buffer.render(context, this.x, this.y, this.width, this.height, () -> super.draw(context, mouseX, mouseY, partialTicks, delta));
+            this.renderedVersion = this.version;
+        }
+
+        this.buffer.draw(context);
+    }
+
+    /**
+     * Whether the contents of this layout contain an animated entity. The
+     * descendants are only walked again once the layout has been marked dirty
+     * or the entity preview mode has changed
+     */
+    protected boolean isAnimated() {
+        var previewMode = OwoWhatsThis.CONFIG.entityPreviewMode();
+        if (this.animatedVersion == this.version && this.animatedPreviewMode == previewMode) return this.animated;
+
+        this.animated = false;
+        this.forEachDescendant(descendant -> {
+            if (descendant instanceof OwoWhatsThisEntityComponent<?> entityComponent) {
+                if (entityComponent.isAnimated()) this.animated = true;
+            } else if (descendant instanceof EntityComponent<?>) {
+                this.animated = true;
+            }
+        });
+
+        this.animatedVersion = this.version;
+        this.animatedPreviewMode = previewMode;
+        return this.animated;
+    }
+}
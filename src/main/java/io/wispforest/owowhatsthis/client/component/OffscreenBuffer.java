@@ -0,0 +1,156 @@
+package io.wispforest.owowhatsthis.client.component;
+
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.systems.RenderSystem;
+import io.wispforest.owo.ui.core.OwoUIDrawContext;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gl.Framebuffer;
+import net.minecraft.client.gl.SimpleFramebuffer;
+import net.minecraft.client.render.*;
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * An offscreen framebuffer covering a single region of the screen, which components
+ * can render into once and then draw as a textured quad instead of re-drawing
+ * themselves every frame. Renders may be nested
+ * <p>
+ * Framebuffers which have not been drawn for a while are released during
+ * the next {@link #sweep()} and transparently re-allocated when needed again
+ */
+public class OffscreenBuffer {
+
+    private static final long RELEASE_AFTER_MS = 5000;
+
+    private static final List<OffscreenBuffer> ALLOCATED = new ArrayList<>();
+    private static final Deque<Framebuffer> ACTIVE = new ArrayDeque<>();
+
+    protected @Nullable SimpleFramebuffer framebuffer = null;
+    protected int x, y, width, height;
+    protected double scale;
+    protected long lastUsed = 0;
+
+    /**
+     * Whether this buffer holds a render of the given region at the current scale
+     */
+    public boolean holds(int x, int y, int width, int height) {
+        return this.framebuffer != null
+                && this.x == x && this.y == y && this.width == width && this.height == height
+                && this.scale == MinecraftClient.getInstance().getWindow().getScaleFactor();
+    }
+
+    /**
+     * Clear this buffer and run {@code drawFunction} with rendering
+     * redirected into it, capturing the given region of the screen
+     */
+    public void render(OwoUIDrawContext context, int x, int y, int width, int height, Runnable drawFunction) {
+        this.lastUsed = Util.getMeasuringTimeMs();
+
+        var client = MinecraftClient.getInstance();
+        double scale = client.getWindow().getScaleFactor();
+        int textureWidth = Math.max(1, (int) Math.ceil(width * scale)), textureHeight = Math.max(1, (int) Math.ceil(height * scale));
+
+        if (this.framebuffer == null) {
+            this.framebuffer = new SimpleFramebuffer(textureWidth, textureHeight, true, MinecraftClient.IS_SYSTEM_MAC);
+            this.framebuffer.setClearColor(0, 0, 0, 0);
+            ALLOCATED.add(this);
+        } else if (this.framebuffer.textureWidth != textureWidth || this.framebuffer.textureHeight != textureHeight) {
+            this.framebuffer.resize(textureWidth, textureHeight, MinecraftClient.IS_SYSTEM_MAC);
+        }
+
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.scale = scale;
+
+        context.draw();
+
+        var projection = new Matrix4f(RenderSystem.getProjectionMatrix());
+        var vertexSorter = RenderSystem.getVertexSorting();
+
+        this.framebuffer.clear(MinecraftClient.IS_SYSTEM_MAC);
+        this.framebuffer.beginWrite(true);
+        ACTIVE.push(this.framebuffer);
+
+        RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(x, x + width, y + height, y, 1000, 21000), VertexSorter.BY_Z);
+
+        try {
+            drawFunction.run();
+            context.draw();
+        } finally {
+            ACTIVE.pop();
+            (ACTIVE.isEmpty() ? client.getFramebuffer() : ACTIVE.peek()).beginWrite(true);
+            RenderSystem.setProjectionMatrix(projection, vertexSorter);
+        }
+    }
+
+    /**
+     * Draw the contents of this buffer in the region they were captured from
+     */
+    public void draw(OwoUIDrawContext context) {
+        if (this.framebuffer == null) return;
+        this.lastUsed = Util.getMeasuringTimeMs();
+
+        RenderSystem.setShader(GameRenderer::getPositionTexProgram);
+        RenderSystem.setShaderTexture(0, this.framebuffer.getColorAttachment());
+
+        // The framebuffer holds colors which have already been multiplied by their alpha
+        RenderSystem.enableBlend();
+        RenderSystem.blendFunc(GlStateManager.SrcFactor.ONE, GlStateManager.DstFactor.ONE_MINUS_SRC_ALPHA);
+
+        var matrix = context.getMatrices().peek().getPositionMatrix();
+        var buffer = Tessellator.getInstance().begin(VertexFormat.DrawMode.QUADS, VertexFormats.POSITION_TEXTURE);
+        buffer.vertex(matrix, this.x, this.y, 0).texture(0, 1);
+        buffer.vertex(matrix, this.x, this.y + this.height, 0).texture(0, 0);
+        buffer.vertex(matrix, this.x + this.width, this.y + this.height, 0).texture(1, 0);
+        buffer.vertex(matrix, this.x + this.width, this.y, 0).texture(1, 1);
+        BufferRenderer.drawWithGlobalProgram(buffer.end());
+
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.disableBlend();
+    }
+
+    public void release() {
+        if (this.framebuffer == null) return;
+
+        this.framebuffer.delete();
+        this.framebuffer = null;
+        ALLOCATED.remove(this);
+    }
+
+    /**
+     * Release all framebuffers which have not been drawn for a while. This runs every client
+     * tick, so that buffers are freed even when nothing renders into them anymore
+     */
+    public static void sweep() {
+        long now = Util.getMeasuringTimeMs();
+
+        for (int i = ALLOCATED.size() - 1; i >= 0; i--) {
+            var buffer = ALLOCATED.get(i);
+            if (now - buffer.lastUsed < RELEASE_AFTER_MS) continue;
+
+            buffer.framebuffer.delete();
+            buffer.framebuffer = null;
+            ALLOCATED.remove(i);
+        }
+    }
+
+    /**
+     * Release all framebuffers, regardless of when they were last drawn
+     */
+    public static void releaseAll() {
+        for (var buffer : ALLOCATED) {
+            buffer.framebuffer.delete();
+            buffer.framebuffer = null;
+        }
+
+        ALLOCATED.clear();
+    }
+}
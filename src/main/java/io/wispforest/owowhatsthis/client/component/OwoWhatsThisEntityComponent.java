@@ -3,10 +3,13 @@ package io.wispforest.owowhatsthis.client.component;
 import io.wispforest.owo.ui.component.EntityComponent;
 import io.wispforest.owo.ui.core.OwoUIDrawContext;
 import io.wispforest.owo.ui.core.Sizing;
+import io.wispforest.owowhatsthis.OwoWhatsThis;
+import io.wispforest.owowhatsthis.OwoWhatsThisConfigModel.EntityPreviewMode;
 import net.minecraft.client.util.math.MatrixStack;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LivingEntity;
+import net.minecraft.util.Util;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -19,12 +22,41 @@ public class OwoWhatsThisEntityComponent<E extends Entity> extends EntityCompone
 
     protected boolean handlerExecuted = false;
 
+    protected final OffscreenBuffer buffer = new OffscreenBuffer();
+    protected long lastRenderTime = 0;
+
     public OwoWhatsThisEntityComponent(Sizing sizing, E entity) {
         super(sizing, entity);
     }
 
     @Override
     public void draw(OwoUIDrawContext context, int mouseX, int mouseY, float partialTicks, float delta) {
+        var mode = OwoWhatsThis.CONFIG.entityPreviewMode();
+        if (mode == EntityPreviewMode.LIVE) {
+            this.buffer.release();
+            this.drawEntity(context, mouseX, mouseY, partialTicks, delta);
+            return;
+        }
+
+        long time = Util.getMeasuringTimeMs();
+        boolean renderDue = mode == EntityPreviewMode.THROTTLED && time - this.lastRenderTime >= 1000 / OwoWhatsThis.CONFIG.entityPreviewRate();
+
+        if (renderDue || !this.buffer.holds(this.x, this.y, this.width, this.height)) {
+            this.buffer.render(context, this.x, this.y, this.width, this.height, () -> this.drawEntity(context, mouseX, mouseY, partialTicks, delta));
+            this.lastRenderTime = time;
+        }
+
+        this.buffer.draw(context);
+    }
+
+    /**
+     * Whether this component draws something different every frame
+     */
+    public boolean isAnimated() {
+        return OwoWhatsThis.CONFIG.entityPreviewMode() != EntityPreviewMode.STATIC;
+    }
+
+    protected void drawEntity(OwoUIDrawContext context, int mouseX, int mouseY, float partialTicks, float delta) {
         float prevHeadYaw = 0f;
         float prevPrevHeadYaw = 0f;
 
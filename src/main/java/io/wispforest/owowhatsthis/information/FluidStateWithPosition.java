@@ -1,9 +1,11 @@
 package io.wispforest.owowhatsthis.information;
 
 import io.wispforest.owo.network.ServerAccess;
+import io.wispforest.owowhatsthis.OwoWhatsThis;
 import net.minecraft.fluid.FluidState;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
 
 public record FluidStateWithPosition(BlockPos pos, FluidState state) {
     public void write(PacketByteBuf buf) {
@@ -12,7 +14,7 @@ public record FluidStateWithPosition(BlockPos pos, FluidState state) {
 
     public static FluidStateWithPosition read(ServerAccess access, PacketByteBuf buf) {
         var pos = buf.readBlockPos();
-        if (access.player().getPos().squaredDistanceTo(pos.getX(), pos.getY(), pos.getZ()) > 75) return null;
+        if (access.player().getEyePos().squaredDistanceTo(Vec3d.ofCenter(pos)) > OwoWhatsThis.MAX_TARGET_DISTANCE * OwoWhatsThis.MAX_TARGET_DISTANCE) return null;
 
         return new FluidStateWithPosition(
                 pos,
@@ -0,0 +1,92 @@
+package io.wispforest.owowhatsthis.information;
+
+import io.wispforest.owo.ops.TextOps;
+import io.wispforest.owowhatsthis.OwoWhatsThis;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.tag.BlockTags;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.text.Text;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.ArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Per-{@link BlockState} cache of the harvestability tooltip. Both variants of the
+ * text are built up-front, so that only whether the player can harvest the block
+ * needs to be evaluated every tick. Invalidated whenever tags are reloaded or the
+ * effective tool tags change
+ */
+@ApiStatus.Internal
+public class HarvestabilityCache {
+
+    private static final Predicate<BlockState> SWORD_MINEABLE = state -> {
+        return state.isOf(Blocks.COBWEB) || state.isIn(BlockTags.SWORD_EFFICIENT);
+    };
+
+    private static final Predicate<BlockState> SHEARS_MINEABLE = state -> {
+        return state.isOf(Blocks.COBWEB)
+                || state.isIn(BlockTags.LEAVES)
+                || state.isIn(BlockTags.WOOL)
+                || state.isOf(Blocks.GLOW_LICHEN)
+                || state.isOf(Blocks.REDSTONE_WIRE)
+                || state.isOf(Blocks.TRIPWIRE)
+                || state.isOf(Blocks.VINE);
+    };
+
+    private static final Reference2ObjectOpenHashMap<BlockState, Entry> CACHE = new Reference2ObjectOpenHashMap<>();
+
+    public static Text get(BlockState state, boolean harvestable) {
+        var entry = CACHE.get(state);
+        if (entry == null) CACHE.put(state, entry = compute(state));
+
+        return harvestable ? entry.harvestable : entry.notHarvestable;
+    }
+
+    public static void invalidate() {
+        CACHE.clear();
+    }
+
+    private static Entry compute(BlockState state) {
+        var effectiveTools = new ArrayList<Text>();
+        OwoWhatsThis.effectiveToolTags().forEach((tagId, toolName) -> {
+            if (state.isIn(TagKey.of(RegistryKeys.BLOCK, tagId))) effectiveTools.add(toolName);
+        });
+
+        TagKey<Block> miningLevel = MiningLevelHack.getRequiredMiningLeveltag(state);
+        Text miningLevelName;
+        if (miningLevel != null) {
+            var miningLevelId = miningLevel.id().toString().split(":");
+            miningLevelName = Text.translatable(
+                    "text.owo-whats-this.tooltip.miningLevel",
+                    Text.translatable("text.owo-whats-this.miningLevel." + miningLevelId[miningLevelId.length - 1])
+            );
+        } else {
+            miningLevelName = Text.empty();
+        }
+
+        if (SWORD_MINEABLE.test(state)) {
+            effectiveTools.add(Text.translatable("text.owo-whats-this.toolType.sword"));
+        }
+
+        if (SHEARS_MINEABLE.test(state)) {
+            effectiveTools.add(Text.translatable("text.owo-whats-this.toolType.shears"));
+        }
+
+        var toolsText = effectiveTools.stream().reduce((mutableText, text) -> TextOps.concat(mutableText, Text.of(", ")).append(text));
+        // this cast is only here to appease IntelliJ, as it occasionally has a meltdown
+        // trying to understand the return type of this lambda
+        var tools = (Text) toolsText.map(text -> Text.translatable("text.owo-whats-this.tooltip.tools", text, miningLevelName)).orElse(Text.translatable("text.owo-whats-this.tooltip.noTools"));
+
+        return new Entry(
+                tools.copy().append("\n").append(Text.translatable("text.owo-whats-this.tooltip.harvestable")),
+                tools.copy().append("\n").append(Text.translatable("text.owo-whats-this.tooltip.not_harvestable"))
+        );
+    }
+
+    private record Entry(Text harvestable, Text notHarvestable) {}
+}
@@ -8,15 +8,24 @@ import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.function.Predicate;
 
 public record InformationProvider<T, D>(TargetType<T> applicableTargetType, Transformer<T, D> transformer, Endec<D> endec,
-                                        boolean live, boolean client, int priority) {
+                                        boolean live, boolean client, int priority, @Nullable Endec<?> listElementEndec,
+                                        boolean viewerDependent, boolean snapshotSafe, @Nullable Predicate<Object> applicability) {
     public static final ReflectiveEndecBuilder REFLECTIVE_BUILDER = new ReflectiveEndecBuilder(builder -> {
         builder.register(Endec.VAR_INT, Integer.class, int.class);
         builder.register(Endec.VAR_LONG, Long.class, long.class);
         MinecraftEndecs.addDefaults(builder);
     });
 
+    public InformationProvider(TargetType<T> applicableTargetType, Transformer<T, D> transformer, Endec<D> endec, boolean live, boolean client, int priority) {
+        this(applicableTargetType, transformer, endec, live, client, priority, null, false, false, null);
+    }
+
     public static <T, D> InformationProvider<T, D> client(TargetType<T> applicableTargetType, int priority, Transformer<T, D> transformer) {
         return new InformationProvider<>(
                 applicableTargetType, transformer, null,
@@ -38,6 +47,75 @@ public record InformationProvider<T, D>(TargetType<T> applicableTargetType, Tran
         );
     }
 
+    /**
+     * Create a server-side provider whose data is a list of elements. Updates
+     * to the data of such providers are sent as a delta, containing only the
+     * elements which changed since the previous update
+     */
+    public static <T, E> InformationProvider<T, List<E>> serverList(TargetType<T> applicableTargetType, boolean live, int priority, Endec<E> elementEndec, Transformer<T, List<E>> transformer) {
+        return new InformationProvider<>(
+                applicableTargetType, transformer, elementEndec.listOf(),
+                live, false, priority, elementEndec, false, false, null
+        );
+    }
+
+    /**
+     * Mark this provider as producing different data depending on the player who is
+     * looking at the target. The server shares the results of all other providers
+     * between players looking at the same target within the same tick
+     */
+    public InformationProvider<T, D> markViewerDependent() {
+        return new InformationProvider<>(
+                this.applicableTargetType, this.transformer, this.endec,
+                this.live, this.client, this.priority, this.listElementEndec, true, this.snapshotSafe, this.applicability
+        );
+    }
+
+    /**
+     * Mark this provider as snapshot-safe - that is, the data returned by its
+     * transformer is an immutable snapshot which does not reference any live game
+     * state. The transformer itself still runs on the server thread, but encoding
+     * the (potentially large) data is then done on a worker thread instead
+     */
+    public InformationProvider<T, D> markSnapshotSafe() {
+        return new InformationProvider<>(
+                this.applicableTargetType, this.transformer, this.endec,
+                this.live, this.client, this.priority, this.listElementEndec, this.viewerDependent, true, this.applicability
+        );
+    }
+
+    /**
+     * Restrict this provider to targets whose {@linkplain TargetType#classifier() subject}
+     * is an instance or subclass of any of the given classes. Providers are then only
+     * considered for targets they can apply to, instead of having their transformer
+     * check and return {@code null} for every other target
+     */
+    public InformationProvider<T, D> applicableTo(Class<?>... classes) {
+        return this.applicableWhen(subject -> {
+            for (var clazz : classes) {
+                if (subject instanceof Class<?> subjectClass ? clazz.isAssignableFrom(subjectClass) : clazz.isInstance(subject)) return true;
+            }
+
+            return false;
+        });
+    }
+
+    /**
+     * Restrict this provider to targets whose {@linkplain TargetType#classifier() subject}
+     * matches the given predicate. The result is cached per subject, so the predicate
+     * must only depend on the subject itself
+     */
+    public InformationProvider<T, D> applicableWhen(Predicate<Object> applicability) {
+        return new InformationProvider<>(
+                this.applicableTargetType, this.transformer, this.endec,
+                this.live, this.client, this.priority, this.listElementEndec, this.viewerDependent, this.snapshotSafe, applicability
+        );
+    }
+
+    public boolean appliesTo(Object subject) {
+        return this.applicability == null || this.applicability.test(subject);
+    }
+
     public interface Transformer<T, D> {
         D apply(PlayerEntity player, World world, T target);
     }
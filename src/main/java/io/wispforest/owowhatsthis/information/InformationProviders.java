@@ -1,9 +1,11 @@
 package io.wispforest.owowhatsthis.information;
 
-import io.wispforest.owo.ops.TextOps;
+import io.wispforest.endec.Endec;
+import io.wispforest.endec.StructEndec;
+import io.wispforest.endec.impl.StructEndecBuilder;
 import io.wispforest.owo.registration.reflect.AutoRegistryContainer;
+import io.wispforest.owo.serialization.CodecUtils;
 import io.wispforest.owo.serialization.endec.MinecraftEndecs;
-import io.wispforest.owo.serialization.format.nbt.NbtEndec;
 import io.wispforest.owo.ui.component.Components;
 import io.wispforest.owo.ui.container.Containers;
 import io.wispforest.owo.ui.container.FlowLayout;
@@ -39,12 +41,8 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.vehicle.ChestBoatEntity;
 import net.minecraft.entity.vehicle.StorageMinecartEntity;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.NbtOps;
 import net.minecraft.registry.Registries;
 import net.minecraft.registry.Registry;
-import net.minecraft.registry.tag.BlockTags;
-import net.minecraft.registry.tag.TagKey;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
@@ -52,27 +50,11 @@ import net.minecraft.util.math.MathHelper;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 public class InformationProviders implements AutoRegistryContainer<InformationProvider<?, ?>> {
 
     public static final Identifier GUI_ICONS_TEXTURE = Identifier.of("textures/gui/icons.png");
 
-    private static final Predicate<BlockState> SWORD_MINEABLE = state -> {
-        return state.isOf(Blocks.COBWEB) || state.isIn(BlockTags.SWORD_EFFICIENT);
-    };
-
-    private static final Predicate<BlockState> SHEARS_MINEABLE = state -> {
-        return state.isOf(Blocks.COBWEB)
-                || state.isIn(BlockTags.LEAVES)
-                || state.isIn(BlockTags.WOOL)
-                || state.isOf(Blocks.GLOW_LICHEN)
-                || state.isOf(Blocks.REDSTONE_WIRE)
-                || state.isOf(Blocks.TRIPWIRE)
-                || state.isOf(Blocks.VINE);
-    };
-
     public static final InformationProvider<BlockStateWithPosition, Text> BLOCK_HARDNESS = InformationProvider.client(
             TargetType.BLOCK, 0,
             (player, world, target) -> Text.translatable("text.owo-whats-this.tooltip.blockHardness", target.state().getHardness(world, target.pos()))
@@ -82,39 +64,7 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
             TargetType.BLOCK, 0,
             (player, world, target) -> {
                 var state = target.state();
-                var harvestable = !state.isToolRequired() || player.getMainHandStack().isSuitableFor(state);
-
-                var effectiveTools = Registries.BLOCK.getEntry(state.getBlock()).streamTags()
-                        .filter(blockTagKey -> OwoWhatsThis.effectiveToolTags().containsKey(blockTagKey.id()))
-                        .map(blockTagKey -> OwoWhatsThis.effectiveToolTags().get(blockTagKey.id()))
-                        .collect(Collectors.toList());
-
-                TagKey<Block> miningLevel = MiningLevelHack.getRequiredMiningLeveltag(state);
-                Text miningLevelName;
-                if (miningLevel != null) {
-                    var miningLevelId = miningLevel.id().toString().split(":");
-                    miningLevelName = Text.translatable(
-                            "text.owo-whats-this.tooltip.miningLevel",
-                            Text.translatable("text.owo-whats-this.miningLevel." + miningLevelId[miningLevelId.length - 1])
-                    );
-                } else {
-                    miningLevelName = Text.empty();
-                }
-
-                if (SWORD_MINEABLE.test(state)) {
-                    effectiveTools.add(Text.translatable("text.owo-whats-this.toolType.sword"));
-                }
-
-                if (SHEARS_MINEABLE.test(state)) {
-                    effectiveTools.add(Text.translatable("text.owo-whats-this.toolType.shears"));
-                }
-
-                var toolsText = effectiveTools.stream().reduce((mutableText, text) -> TextOps.concat(mutableText, Text.of(", ")).append(text));
-                // this cast is only here to appease IntelliJ, as it occasionally has a meltdown
-                // trying to understand the return type of this lambda
-                return (Text) toolsText.map(tools -> Text.translatable("text.owo-whats-this.tooltip.tools", tools, miningLevelName)).orElse(Text.translatable("text.owo-whats-this.tooltip.noTools"))
-                        .append("\n")
-                        .append(Text.translatable(harvestable ? "text.owo-whats-this.tooltip.harvestable" : "text.owo-whats-this.tooltip.not_harvestable"));
+                return HarvestabilityCache.get(state, !state.isToolRequired() || player.getMainHandStack().isSuitableFor(state));
             }
     );
 
@@ -126,9 +76,9 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
             }
     );
 
-    public static final InformationProvider<BlockStateWithPosition, List<ItemStack>> BLOCK_ITEM_STORAGE = InformationProvider.server(
+    public static final InformationProvider<BlockStateWithPosition, List<ItemStack>> BLOCK_ITEM_STORAGE = InformationProvider.serverList(
             TargetType.BLOCK, true, -10,
-            MinecraftEndecs.ITEM_STACK.listOf(),
+            MinecraftEndecs.ITEM_STACK,
             (player, world, target) -> {
                 var storage = ItemStorage.SIDED.find(world, target.pos(), null);
                 if (storage == null) return null;
@@ -142,28 +92,25 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
 
                 return items.isEmpty() ? null : items;
             }
-    );
+    ).markSnapshotSafe();
 
-    public static final InformationProvider<BlockStateWithPosition, List<NbtCompound>> BLOCK_FLUID_STORAGE = InformationProvider.server(
+    public static final InformationProvider<BlockStateWithPosition, List<FluidStorageEntry>> BLOCK_FLUID_STORAGE = InformationProvider.serverList(
             TargetType.BLOCK, true, 0,
-            NbtEndec.COMPOUND.listOf(),
+            FluidStorageEntry.ENDEC,
             (player, world, target) -> {
                 var storage = FluidStorage.SIDED.find(world, target.pos(), null);
                 if (storage == null) return null;
 
-                var fluidData = new ArrayList<NbtCompound>();
+                // Only snapshot the storage here, the variants are encoded off-thread
+                var fluidData = new ArrayList<FluidStorageEntry>();
                 for (var entry : storage) {
                     if (entry.isResourceBlank()) continue;
-
-                    var nbt = (NbtCompound) FluidVariant.CODEC.encodeStart(world.getRegistryManager().getOps(NbtOps.INSTANCE), entry.getResource()).getOrThrow();
-                    nbt.putLong("owo-whats-this:amount", entry.getAmount());
-                    nbt.putLong("owo-whats-this:capacity", entry.getCapacity());
-                    fluidData.add(nbt);
+                    fluidData.add(new FluidStorageEntry(entry.getResource(), entry.getAmount(), entry.getCapacity()));
                 }
 
                 return fluidData.isEmpty() ? null : fluidData;
             }
-    );
+    ).markSnapshotSafe();
 
     public static final InformationProvider<BlockStateWithPosition, Text> BLOCK_CROP_GROWTH = InformationProvider.client(
             TargetType.BLOCK, 0,
@@ -190,7 +137,7 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
                         ? Text.translatable("text.owo-whats-this.tooltip.blockCropGrowth.fullyGrown")
                         : Text.translatable("text.owo-whats-this.tooltip.blockCropGrowth", (growth * 100) / maxGrowth);
             }
-    );
+    ).applicableTo(CropBlock.class, StemBlock.class, NetherWartBlock.class);
 
     public static final InformationProvider<BlockStateWithPosition, Text> BLOCK_BEEHIVE_STATS = InformationProvider.server(
             TargetType.BLOCK, true, 0,
@@ -213,7 +160,7 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
                         .append(Text.literal("\n"))
                         .append(honeyText);
             }
-    );
+    ).applicableTo(BeehiveBlock.class);
 
     public static final InformationProvider<FluidStateWithPosition, Text> FLUID_VISCOSITY = InformationProvider.client(
             TargetType.FLUID, 0,
@@ -227,7 +174,7 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
             (player, world, entity) -> (entity instanceof LivingEntity living)
                     ? new EntityHealthInfo(living.getHealth(), living.getMaxHealth(), living.getArmor())
                     : null
-    );
+    ).applicableTo(LivingEntity.class);
 
     public static final InformationProvider<Entity, Text> ENTITY_STATUS_EFFECTS = InformationProvider.server(
             TargetType.ENTITY, true, 0, Text.class,
@@ -249,7 +196,7 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
                 }
                 return display;
             }
-    );
+    ).applicableTo(LivingEntity.class);
 
     public static final InformationProvider<Entity, Text> ENTITY_GROWING_TIME = InformationProvider.server(
             TargetType.ENTITY, true, 0, Text.class,
@@ -259,7 +206,7 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
 
                 return Text.translatable("text.owo-whats-this.tooltip.entityGrowingTime", NumberFormatter.time(-passive.getBreedingAge() / 20));
             }
-    );
+    ).applicableTo(PassiveEntity.class);
 
     public static final InformationProvider<Entity, Text> ENTITY_BREEDING_COOLDOWN = InformationProvider.server(
             TargetType.ENTITY, true, 0, Text.class,
@@ -269,7 +216,7 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
 
                 return Text.translatable("text.owo-whats-this.tooltip.entityBreedingCooldown", NumberFormatter.time(passive.getBreedingAge() / 20));
             }
-    );
+    ).applicableTo(PassiveEntity.class);
 
     public static final InformationProvider<Entity, Text> ENTITY_OWNER = InformationProvider.server(
             TargetType.ENTITY, false, 0, Text.class,
@@ -282,7 +229,7 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
 
                 return Text.translatable("text.owo-whats-this.tooltip.entity_owner", name);
             }
-    );
+    ).applicableTo(TameableEntity.class);
 
     public static final InformationProvider<Entity, Text> ENTITY_TNT_FUSE = InformationProvider.client(
             TargetType.ENTITY, 0,
@@ -290,7 +237,7 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
                 if (!(entity instanceof TntEntity tnt)) return null;
                 return Text.translatable("text.owo-whats-this.tooltip.entityTntFuse", NumberFormatter.time(tnt.getFuse() / 20));
             }
-    );
+    ).applicableTo(TntEntity.class);
 
     public static final InformationProvider<Entity, Text> ENTITY_ITEM_COUNT = InformationProvider.client(
             TargetType.ENTITY, 0,
@@ -300,11 +247,11 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
 
                 return Text.translatable("text.owo-whats-this.tooltip.entityItemCount", item.getStack().getCount());
             }
-    );
+    ).applicableTo(ItemEntity.class);
 
-    public static final InformationProvider<Entity, List<ItemStack>> ENTITY_MINECART_INVENTORY = InformationProvider.server(
+    public static final InformationProvider<Entity, List<ItemStack>> ENTITY_MINECART_INVENTORY = InformationProvider.serverList(
             TargetType.ENTITY, true, 0,
-            MinecraftEndecs.ITEM_STACK.listOf(),
+            MinecraftEndecs.ITEM_STACK,
             (player, world, target) -> {
                 if (!(target instanceof StorageMinecartEntity minecart)) return null;
 
@@ -318,11 +265,11 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
 
                 return items;
             }
-    );
+    ).applicableTo(StorageMinecartEntity.class);
 
-    public static final InformationProvider<Entity, List<ItemStack>> ENTITY_CHEST_BOAT_INVENTORY = InformationProvider.server(
+    public static final InformationProvider<Entity, List<ItemStack>> ENTITY_CHEST_BOAT_INVENTORY = InformationProvider.serverList(
             TargetType.ENTITY, true, 0,
-            MinecraftEndecs.ITEM_STACK.listOf(),
+            MinecraftEndecs.ITEM_STACK,
             (player, world, target) -> {
                 if (!(target instanceof ChestBoatEntity boat)) return null;
 
@@ -336,11 +283,11 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
 
                 return items;
             }
-    );
+    ).applicableTo(ChestBoatEntity.class);
 
-    public static final InformationProvider<PlayerEntity, List<ItemStack>> PLAYER_INVENTORY = InformationProvider.server(
+    public static final InformationProvider<PlayerEntity, List<ItemStack>> PLAYER_INVENTORY = InformationProvider.serverList(
             TargetType.PLAYER, true, 0,
-            MinecraftEndecs.ITEM_STACK.listOf(),
+            MinecraftEndecs.ITEM_STACK,
             (player, world, target) -> {
                 var items = new ArrayList<ItemStack>();
                 for (int i = 0; i < target.getInventory().size(); i++) {
@@ -367,6 +314,15 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
 
     public record EntityHealthInfo(float health, float maxHealth, int armor) {}
 
+    public record FluidStorageEntry(FluidVariant variant, long amount, long capacity) {
+        public static final StructEndec<FluidStorageEntry> ENDEC = StructEndecBuilder.of(
+                CodecUtils.toEndecWithRegistries(FluidVariant.CODEC, FluidVariant.PACKET_CODEC).fieldOf("variant", FluidStorageEntry::variant),
+                Endec.VAR_LONG.fieldOf("amount", FluidStorageEntry::amount),
+                Endec.VAR_LONG.fieldOf("capacity", FluidStorageEntry::capacity),
+                FluidStorageEntry::new
+        );
+    }
+
     @Environment(EnvType.CLIENT)
     public static class DisplayAdapters {
 
@@ -425,17 +381,17 @@ public class InformationProviders implements AutoRegistryContainer<InformationPr
             });
         };
 
-        public static final InformationProvider.DisplayAdapter<List<NbtCompound>> FLUID_STORAGE_LIST = data -> {
+        public static final InformationProvider.DisplayAdapter<List<FluidStorageEntry>> FLUID_STORAGE_LIST = data -> {
             return Containers.verticalFlow(Sizing.content(), Sizing.content()).<FlowLayout>configure(layout -> {
                 layout.gap(2);
-                for (var fluidNbt : data) {
-                    var variant = FluidVariant.CODEC.parse(MinecraftClient.getInstance().world.getRegistryManager().getOps(NbtOps.INSTANCE), fluidNbt).getOrThrow();
+                for (var entry : data) {
+                    var variant = entry.variant();
 
                     var sprite = FluidVariantRendering.getSprite(variant);
                     int color = FluidVariantRendering.getColor(variant);
 
-                    long amount = fluidNbt.getLong("owo-whats-this:amount");
-                    long capacity = fluidNbt.getLong("owo-whats-this:capacity");
+                    long amount = entry.amount();
+                    long capacity = entry.capacity();
 
                     final var fluidText = Text.translatable(
                             "text.owo-whats-this.tooltip.blockFluidAmount",
@@ -0,0 +1,18 @@
+package io.wispforest.owowhatsthis.information;
+
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Compact, primitive identity of a target as produced by {@link TargetType#keyOf(Object)}.
+ * Two targets of the same type are considered the same if and only if their keys are
+ * equal - keys of different target types must not be compared
+ *
+ * @param primary   the main identity of the target, like a packed block position
+ * @param secondary additional identity, like the raw id of the targeted state
+ */
+public record TargetKey(long primary, int secondary) {
+
+    public static TargetKey ofPosition(BlockPos pos, int stateId) {
+        return new TargetKey(pos.asLong(), stateId);
+    }
+}
@@ -15,15 +15,16 @@ import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.transfer.v1.client.fluid.FluidVariantRendering;
 import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariant;
 import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariantAttributes;
+import net.minecraft.block.Block;
 import net.minecraft.block.FluidBlock;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.boss.dragon.EnderDragonPart;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.fluid.Fluid;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.registry.Registries;
 import net.minecraft.text.Text;
-import net.minecraft.util.Formatting;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.hit.EntityHitResult;
@@ -31,11 +32,15 @@ import net.minecraft.util.hit.HitResult;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public record TargetType<T>(BiFunction<World, HitResult, @Nullable T> transformer, BiConsumer<T, PacketByteBuf> serializer,
-                            BiFunction<ServerAccess, PacketByteBuf, @Nullable T> deserializer, int priority, @Nullable TargetType<? super T> parent) {
+                            BiFunction<ServerAccess, PacketByteBuf, @Nullable T> deserializer, int priority, @Nullable TargetType<? super T> parent,
+                            Function<T, TargetKey> keyFunction, @Nullable Function<T, Object> classifier) {
 
     public TargetType {
         if (parent != null && parent.priority >= priority) {
@@ -43,6 +48,15 @@ public record TargetType<T>(BiFunction<World, HitResult, @Nullable T> transforme
         }
     }
 
+    /**
+     * Create a target type which derives the keys of its targets from their
+     * {@link Object#hashCode()} - prefer providing a proper key function
+     */
+    public TargetType(BiFunction<World, HitResult, @Nullable T> transformer, BiConsumer<T, PacketByteBuf> serializer,
+                      BiFunction<ServerAccess, PacketByteBuf, @Nullable T> deserializer, int priority, @Nullable TargetType<? super T> parent) {
+        this(transformer, serializer, deserializer, priority, parent, target -> new TargetKey(target.hashCode(), 0), null);
+    }
+
     public static final TargetType<BlockStateWithPosition> BLOCK = new TargetType<>(
             (world, hitResult) -> hitResult instanceof BlockHitResult blockHit
                     && blockHit.getType() == HitResult.Type.BLOCK
@@ -51,7 +65,9 @@ public record TargetType<T>(BiFunction<World, HitResult, @Nullable T> transforme
                     : null,
             BlockStateWithPosition::write,
             BlockStateWithPosition::read,
-            0, null
+            0, null,
+            target -> TargetKey.ofPosition(target.pos(), Block.getRawIdFromState(target.state())),
+            target -> target.state().getBlock()
     );
 
     public static final TargetType<FluidStateWithPosition> FLUID = new TargetType<>(
@@ -63,23 +79,49 @@ public record TargetType<T>(BiFunction<World, HitResult, @Nullable T> transforme
                     : null,
             FluidStateWithPosition::write,
             FluidStateWithPosition::read,
-            10, null
+            10, null,
+            target -> TargetKey.ofPosition(target.pos(), Fluid.STATE_IDS.getRawId(target.state())),
+            target -> target.state().getFluid()
     );
 
     public static final TargetType<Entity> ENTITY = new TargetType<>(
             (world, hitResult) -> hitResult instanceof EntityHitResult entityHit ? fixEnderDragon(entityHit.getEntity()) : null,
             (entity, buf) -> buf.writeVarInt(entity.getId()),
             (access, buf) -> fixEnderDragon(access.player().getWorld().getEntityById(buf.readVarInt())),
-            20, null
+            20, null,
+            TargetType::entityKey,
+            Entity::getClass
     );
 
     public static final TargetType<PlayerEntity> PLAYER = new TargetType<>(
             (world, hitResult) -> hitResult instanceof EntityHitResult entityHit && entityHit.getEntity() instanceof PlayerEntity player ? player : null,
             (player, buf) -> buf.writeVarInt(player.getId()),
             (access, buf) -> (PlayerEntity) access.player().getWorld().getEntityById(buf.readVarInt()),
-            30, ENTITY
+            30, ENTITY,
+            TargetType::entityKey,
+            Entity::getClass
     );
 
+    public TargetKey keyOf(T target) {
+        return this.keyFunction.apply(target);
+    }
+
+    /**
+     * The subject of the given target, which providers check their
+     * {@linkplain InformationProvider#applicableTo(Class[]) applicability} against -
+     * the block, the fluid or the class of the entity. {@code null} if
+     * this target type does not support applicability filtering
+     */
+    public @Nullable Object subjectOf(T target) {
+        return this.classifier == null ? null : this.classifier.apply(target);
+    }
+
+    // Network ids are handed out by a global counter and never reused, the
+    // raw id of the entity's type merely guards against stale ids on the client
+    private static TargetKey entityKey(Entity entity) {
+        return new TargetKey(entity.getId(), Registries.ENTITY_TYPE.getRawId(entity.getType()));
+    }
+
     private static Entity fixEnderDragon(Entity entity) {
         if (!(entity instanceof EnderDragonPart part)) return entity;
         return part.owner;
@@ -88,7 +130,9 @@ public record TargetType<T>(BiFunction<World, HitResult, @Nullable T> transforme
     @Environment(EnvType.CLIENT)
     public interface DisplayAdapter<T> {
 
-        DisplayAdapter<BlockStateWithPosition> BLOCK = target -> {
+        // The pick stack of a block entity can depend on its data, like the
+        // profile of a head or the patterns of a banner, which the key does not cover
+        DisplayAdapter<BlockStateWithPosition> BLOCK = uncachedWhen(target -> {
             var targetState = target.state();
             var previewItem = targetState.getBlock().getPickStack(MinecraftClient.getInstance().world, target.pos(), targetState);
 
@@ -97,7 +141,7 @@ public record TargetType<T>(BiFunction<World, HitResult, @Nullable T> transforme
                             TextOps.concat(
                                     targetState.getBlock().getName(),
                                     Text.literal("\n").append(
-                                            TextOps.withFormatting(OwoWhatsThis.modNameOf(Registries.BLOCK.getId(targetState.getBlock())), Formatting.BLUE)
+                                            OwoWhatsThis.modNameText(Registries.BLOCK.getId(targetState.getBlock()))
                                     )
                             )
                     ).shadow(true),
@@ -105,7 +149,7 @@ public record TargetType<T>(BiFunction<World, HitResult, @Nullable T> transforme
                             ? Containers.verticalFlow(Sizing.fixed(0), Sizing.fixed(0))
                             : Components.item(previewItem)
             );
-        };
+        }, target -> target.state().hasBlockEntity());
 
         @SuppressWarnings("UnstableApiUsage")
         DisplayAdapter<FluidStateWithPosition> FLUID = target -> {
@@ -116,7 +160,7 @@ public record TargetType<T>(BiFunction<World, HitResult, @Nullable T> transforme
                             TextOps.concat(
                                     FluidVariantAttributes.getName(fluidVariant),
                                     Text.literal("\n").append(
-                                            TextOps.withFormatting(OwoWhatsThis.modNameOf(Registries.FLUID.getId(fluidVariant.getFluid())), Formatting.BLUE)
+                                            OwoWhatsThis.modNameText(Registries.FLUID.getId(fluidVariant.getFluid()))
                                     )
                             )
                     ).shadow(true),
@@ -127,31 +171,20 @@ public record TargetType<T>(BiFunction<World, HitResult, @Nullable T> transforme
             );
         };
 
-        DisplayAdapter<Entity> ENTITY = entity -> new PreviewData(
+        DisplayAdapter<Entity> ENTITY = versioned(entity -> new PreviewData(
                 Components.label(
                         TextOps.concat(
                                 entity.getDisplayName(),
                                 Text.literal("\n").append(
-                                        TextOps.withFormatting(OwoWhatsThis.modNameOf(Registries.ENTITY_TYPE.getId(entity.getType())), Formatting.BLUE)
+                                        OwoWhatsThis.modNameText(Registries.ENTITY_TYPE.getId(entity.getType()))
                                 )
                         )
                 ).shadow(true),
                 new OwoWhatsThisEntityComponent<>(Sizing.fixed(24), entity).scaleToFit(true)
-        );
+        ), Entity::getDisplayName);
 
-        DisplayAdapter<PlayerEntity> PLAYER = player -> {
-            int pingStatus = 1;
-
-            var playerListEntry = MinecraftClient.getInstance().getNetworkHandler().getPlayerListEntry(player.getUuid());
-            if (playerListEntry != null) {
-                int latency = playerListEntry.getLatency();
-
-                if (latency < 0) pingStatus = 0;
-                else if (latency < 150) pingStatus = 5;
-                else if (latency < 300) pingStatus = 4;
-                else if (latency < 600) pingStatus = 3;
-                else if (latency < 1000) pingStatus = 2;
-            }
+        DisplayAdapter<PlayerEntity> PLAYER = versioned(player -> {
+            int pingStatus = pingStatusOf(player);
 
             var pingId = pingStatus == 0
                     ? Identifier.of("icon/ping_unknown")
@@ -166,9 +199,68 @@ public record TargetType<T>(BiFunction<World, HitResult, @Nullable T> transforme
                             )).gap(3),
                     entityPreview.preview()
             );
-        };
+        }, player -> List.of(pingStatusOf(player), player.getDisplayName()));
 
         PreviewData buildPreview(T value);
+
+        /**
+         * Whatever the preview of the given value depends on, beyond its {@link TargetKey}.
+         * Previews are cached per key and rebuilt when this is no longer {@linkplain Object#equals(Object) equal}
+         */
+        default @Nullable Object previewVersion(T value) {
+            return null;
+        }
+
+        /**
+         * Whether the preview of the given value may be cached at all. Previews which
+         * depend on more than can sensibly be expressed as a {@linkplain #previewVersion(Object) version}
+         * are built anew whenever they are needed
+         */
+        default boolean cachePreview(T value) {
+            return true;
+        }
+
+        static <T> DisplayAdapter<T> uncachedWhen(DisplayAdapter<T> adapter, Predicate<T> uncached) {
+            return new DisplayAdapter<>() {
+                @Override
+                public PreviewData buildPreview(T value) {
+                    return adapter.buildPreview(value);
+                }
+
+                @Override
+                public boolean cachePreview(T value) {
+                    return !uncached.test(value);
+                }
+            };
+        }
+
+        static <T> DisplayAdapter<T> versioned(DisplayAdapter<T> adapter, Function<T, @Nullable Object> version) {
+            return new DisplayAdapter<>() {
+                @Override
+                public PreviewData buildPreview(T value) {
+                    return adapter.buildPreview(value);
+                }
+
+                @Override
+                public @Nullable Object previewVersion(T value) {
+                    return version.apply(value);
+                }
+            };
+        }
+
+        private static int pingStatusOf(PlayerEntity player) {
+            var playerListEntry = MinecraftClient.getInstance().getNetworkHandler().getPlayerListEntry(player.getUuid());
+            if (playerListEntry == null) return 1;
+
+            int latency = playerListEntry.getLatency();
+
+            if (latency < 0) return 0;
+            else if (latency < 150) return 5;
+            else if (latency < 300) return 4;
+            else if (latency < 600) return 3;
+            else if (latency < 1000) return 2;
+            else return 1;
+        }
     }
 
     @Environment(EnvType.CLIENT)
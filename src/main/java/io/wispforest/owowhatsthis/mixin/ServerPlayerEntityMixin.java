@@ -0,0 +1,24 @@
+package io.wispforest.owowhatsthis.mixin;
+
+import io.wispforest.owowhatsthis.network.ClientData;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+@Mixin(ServerPlayerEntity.class)
+public class ServerPlayerEntityMixin implements ClientData.Holder {
+
+    @Unique
+    private @Nullable ClientData whatsThis$clientData = null;
+
+    @Override
+    public @Nullable ClientData whatsThis$getClientData() {
+        return this.whatsThis$clientData;
+    }
+
+    @Override
+    public void whatsThis$setClientData(@Nullable ClientData data) {
+        this.whatsThis$clientData = data;
+    }
+}
@@ -0,0 +1,13 @@
+package io.wispforest.owowhatsthis.mixin;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.world.World;
+import net.minecraft.world.entity.EntityLookup;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+@Mixin(World.class)
+public interface WorldAccessor {
+    @Invoker("getEntityLookup")
+    EntityLookup<Entity> whatsThis$getEntityLookup();
+}
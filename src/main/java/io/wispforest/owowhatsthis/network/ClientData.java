@@ -0,0 +1,60 @@
+package io.wispforest.owowhatsthis.network;
+
+import io.wispforest.owowhatsthis.OwoWhatsThis;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per-player tooltip state on the server, which is
+ * stored directly on the {@link ServerPlayerEntity}
+ */
+@ApiStatus.Internal
+public final class ClientData {
+
+    int lastTargetNonce = -1;
+    @Nullable OwoWhatsThisNetworking.Subscription subscription = null;
+
+    private long lastPassTime = -1;
+    private int rateLimitOverride = -1;
+
+    public static @Nullable ClientData get(ServerPlayerEntity player) {
+        return ((Holder) player).whatsThis$getClientData();
+    }
+
+    public static ClientData getOrCreate(ServerPlayerEntity player) {
+        var data = get(player);
+        if (data == null) ((Holder) player).whatsThis$setClientData(data = new ClientData());
+
+        return data;
+    }
+
+    public static void set(ServerPlayerEntity player, @Nullable ClientData data) {
+        ((Holder) player).whatsThis$setClientData(data);
+    }
+
+    void setRateLimitOverride(int override) {
+        this.rateLimitOverride = override;
+    }
+
+    void clearRateLimitOverride() {
+        this.rateLimitOverride = -1;
+    }
+
+    boolean passesRateLimit(long time) {
+        int rateLimit = this.rateLimitOverride < 0
+                ? OwoWhatsThis.CONFIG.updateDelay()
+                : this.rateLimitOverride;
+
+        if (time - this.lastPassTime < rateLimit) return false;
+
+        this.lastPassTime = time;
+        return true;
+    }
+
+    public interface Holder {
+        @Nullable ClientData whatsThis$getClientData();
+
+        void whatsThis$setClientData(@Nullable ClientData data);
+    }
+}
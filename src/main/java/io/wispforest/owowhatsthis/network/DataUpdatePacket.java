@@ -2,4 +2,28 @@ package io.wispforest.owowhatsthis.network;
 
 import net.minecraft.network.PacketByteBuf;
 
-public record DataUpdatePacket(int nonce, PacketByteBuf data) {}
+/**
+ * The provider data for the target subscribed to with {@code nonce}
+ * <p>
+ * Like in {@link RequestDataPacket}, the buffer is owned by the receiving
+ * handler and must be an exact-size unpooled copy on the sending side
+ */
+public record DataUpdatePacket(int nonce, PacketByteBuf data) {
+
+    /**
+     * The provider's data follows in full
+     */
+    public static final byte FULL = 0;
+
+    /**
+     * The provider's data has not changed since the previous update
+     */
+    public static final byte UNCHANGED = 1;
+
+    /**
+     * The provider's data is a list - its new size follows, along with
+     * the index and value of every element which changed since the previous update
+     */
+    public static final byte LIST_DELTA = 2;
+
+}
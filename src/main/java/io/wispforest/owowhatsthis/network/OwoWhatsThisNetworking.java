@@ -1,84 +1,330 @@
 package io.wispforest.owowhatsthis.network;
 
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.wispforest.endec.SerializationContext;
 import io.wispforest.owo.network.OwoNetChannel;
+import io.wispforest.owo.network.ServerAccess;
 import io.wispforest.owo.serialization.RegistriesAttribute;
 import io.wispforest.owowhatsthis.OwoWhatsThis;
-import io.wispforest.owowhatsthis.RateLimitTracker;
+import io.wispforest.owowhatsthis.TooltipMetrics;
 import io.wispforest.owowhatsthis.TooltipObjectManager;
 import io.wispforest.owowhatsthis.client.OwoWhatsThisHUD;
 import io.wispforest.owowhatsthis.information.InformationProvider;
-import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
-import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import io.wispforest.owowhatsthis.information.TargetType;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.network.PacketByteBuf;
 import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Objects;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 public class OwoWhatsThisNetworking {
 
     public static final OwoNetChannel CHANNEL = OwoNetChannel.create(OwoWhatsThis.id("main"));
 
-    private static final Object2ObjectMap<UUID, ClientData> CLIENT_DATA = new Object2ObjectLinkedOpenHashMap<>();
+    // Players which have tooltip state attached are served round-robin,
+    // starting after the last player which was served during the previous tick
+    private static final List<ServerPlayerEntity> SCHEDULE = new ArrayList<>();
+    private static int scheduleCursor = 0;
+    private static long refreshGeneration = 0;
+
+    // Encoding state which is reused for every update - all of this
+    // is confined to the server thread, see DataUpdatePacket for how
+    // ownership of the buffers inside packets works
+    private static final UpdateAssembler.UpdateBatch UPDATE_BATCH = new UpdateAssembler.UpdateBatch();
+
+    private static @Nullable RegistryByteBuf encodeBuffer = null;
+    private static @Nullable RegistryByteBuf assemblyBuffer = null;
 
-    @SuppressWarnings({"unchecked", "DataFlowIssue"})
     public static void initialize() {
-        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
-            CLIENT_DATA.remove(handler.player.getUuid());
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            if (ClientData.get(handler.player) == null) return;
+
+            ClientData.set(handler.player, null);
+            SCHEDULE.remove(handler.player);
+        });
+
+        // Respawning and returning from the end create a new player entity, which the state moves over to
+        ServerPlayerEvents.COPY_FROM.register((oldPlayer, newPlayer, alive) -> {
+            var data = ClientData.get(oldPlayer);
+            if (data == null) return;
+
+            ClientData.set(oldPlayer, null);
+            ClientData.set(newPlayer, data);
+            SCHEDULE.set(SCHEDULE.indexOf(oldPlayer), newPlayer);
+
+            if (data.subscription != null) data.subscription.access = new ServerAccess(newPlayer);
         });
 
         CHANNEL.registerServerbound(RequestDataPacket.class, (message, access) -> {
-            var type = OwoWhatsThis.TARGET_TYPE.get(message.targetData().readVarInt());
-            var target = type.deserializer().apply(access, message.targetData());
-            message.targetData().release();
-            if (target == null) return;
-
-            if (!updateRateLimit(access.player(), target.hashCode())) return;
-
-            var buffer = new RegistryByteBuf(Unpooled.buffer(), access.runtime().getRegistryManager());
-            var applicableProviders = new HashMap<InformationProvider<Object, Object>, Object>();
-
-            for (var provider : TooltipObjectManager.getProviders(type, access.player().isSneaking())) {
-                if (provider.client()) continue;
-                applicableProviders.put(
-                        (InformationProvider<Object, Object>) provider,
-                        ((InformationProvider<Object, Object>) provider).transformer().apply(access.player(), access.player().getWorld(), target)
-                );
+            var buffer = message.targetData();
+
+            var type = OwoWhatsThis.TARGET_TYPE.get(buffer.readVarInt());
+            var targetData = new byte[buffer.readableBytes()];
+            buffer.readBytes(targetData);
+            buffer.release();
+
+            if (type == null) return;
+
+            var data = ClientData.get(access.player());
+            if (data == null) {
+                data = ClientData.getOrCreate(access.player());
+                SCHEDULE.add(access.player());
             }
 
-            applicableProviders.values().removeIf(Objects::isNull);
+            // A newer request simply replaces the subscription, so stale
+            // requests which have not been served yet are dropped here
+            data.subscription = new Subscription(access, type, targetData, message.nonce());
+            data.subscription.servedGeneration = refreshGeneration;
+
+            if (data.lastTargetNonce != message.nonce()) {
+                data.lastTargetNonce = message.nonce();
+                data.setRateLimitOverride(OwoWhatsThis.CONFIG.updateDelay() / 2);
+            }
+        });
+
+        CHANNEL.registerServerbound(UnsubscribePacket.class, (message, access) -> {
+            var data = ClientData.get(access.player());
+            if (data == null || data.subscription == null || data.subscription.nonce != message.nonce()) return;
+
+            data.subscription = null;
+        });
+
+        ServerTickEvents.END_SERVER_TICK.register(OwoWhatsThisNetworking::updateSubscriptions);
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            encodeBuffer = new RegistryByteBuf(PooledByteBufAllocator.DEFAULT.heapBuffer(), server.getRegistryManager());
+            assemblyBuffer = new RegistryByteBuf(PooledByteBufAllocator.DEFAULT.heapBuffer(), server.getRegistryManager());
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            TransformerResultCache.clear();
+            ProviderBudgetTracker.clear();
+            TooltipStatsExporter.clear();
+
+            SCHEDULE.clear();
+            scheduleCursor = 0;
 
-            buffer.writeVarInt(applicableProviders.size());
-            applicableProviders.forEach((provider, transformed) -> {
-                buffer.writeVarInt(OwoWhatsThis.INFORMATION_PROVIDER.getRawId(provider));
-                buffer.write(SerializationContext.attributes(RegistriesAttribute.of(access.runtime().getRegistryManager())), provider.endec(), transformed);
-            });
+            if (encodeBuffer != null) encodeBuffer.release();
+            if (assemblyBuffer != null) assemblyBuffer.release();
 
-            CHANNEL.serverHandle(access.player()).send(new DataUpdatePacket(message.nonce(), buffer));
+            encodeBuffer = null;
+            assemblyBuffer = null;
         });
 
         CHANNEL.registerClientboundDeferred(DataUpdatePacket.class);
     }
 
-    private static boolean updateRateLimit(ServerPlayerEntity player, int nonce) {
-        var data = CLIENT_DATA.computeIfAbsent(player.getUuid(), uuid -> new ClientData());
+    /**
+     * Serve the subscriptions which are due for an update, round-robin across players. At most
+     * {@code maxRequestsPerTick} updates are handled per tick and handling stops once {@code requestTimeBudget}
+     * is exhausted - whatever remains is served during the following ticks
+     */
+    private static void updateSubscriptions(MinecraftServer server) {
+        TransformerResultCache.expire(server.getTicks());
+
+        // Live data of all subscriptions is refreshed on the same tick, so that
+        // players looking at the same target can share transformer results
+        if (server.getTicks() % Math.max(OwoWhatsThis.CONFIG.updateDelay(), 1) == 0) refreshGeneration++;
+
+        int maxRequests = OwoWhatsThis.CONFIG.maxRequestsPerTick();
+        long deadline = System.nanoTime() + OwoWhatsThis.CONFIG.requestTimeBudget() * 1000L;
+
+        int playerCount = SCHEDULE.size();
+        int handledRequests = 0;
+        int nextCursor = scheduleCursor;
+        boolean budgetExhausted = false;
+
+        for (int i = 0; i < playerCount; i++) {
+            int scheduleIdx = (scheduleCursor + i) % playerCount;
+            var player = SCHEDULE.get(scheduleIdx);
+            var data = ClientData.get(player);
+
+            var subscription = data.subscription;
+            if (subscription == null || subscription.updatePending) continue;
+            if (subscription.initialUpdateSent && subscription.servedGeneration == refreshGeneration) continue;
+
+            // Once the budget is gone, only count the subscriptions which are left waiting
+            if (budgetExhausted || handledRequests >= maxRequests || System.nanoTime() >= deadline) {
+                budgetExhausted = true;
+                TooltipMetrics.SERVER_DEFERRED.increment();
+                continue;
+            }
+
+            if (!subscription.initialUpdateSent) {
+                if (!data.passesRateLimit(player.getWorld().getTime())) {
+                    if (!subscription.rateLimited) TooltipMetrics.SERVER_RATE_LIMITED.increment();
+                    subscription.rateLimited = true;
+                    continue;
+                }
+                data.clearRateLimitOverride();
+            }
+
+            subscription.servedGeneration = refreshGeneration;
+            if (!pushUpdate(server, player, subscription)) data.subscription = null;
+
+            handledRequests++;
+            nextCursor = scheduleIdx + 1;
+        }
+
+        scheduleCursor = playerCount == 0 ? 0 : nextCursor % playerCount;
+        ProviderBudgetTracker.endTick(server.getTicks());
+        TooltipStatsExporter.tick(server);
+    }
+
+    /**
+     * Re-send the data of a non-live provider to every player whose current target
+     * matches the given predicate, as part of their next update. This is for providers
+     * whose data only becomes available after their initial update has already been sent
+     * <p>
+     * Must be called on the server thread
+     */
+    public static void refresh(InformationProvider<?, ?> provider, Predicate<Object> targetPredicate) {
+        TransformerResultCache.invalidate(provider);
+
+        for (var player : SCHEDULE) {
+            var data = ClientData.get(player);
+            if (data == null || data.subscription == null || !data.subscription.initialUpdateSent) continue;
+
+            var subscription = data.subscription;
+            subscription.targetData.readerIndex(0);
+            var target = subscription.type.deserializer().apply(subscription.access, subscription.targetData);
+            if (target == null || !targetPredicate.test(target)) continue;
+
+            subscription.refreshedProviders.add(provider);
+            subscription.servedGeneration = refreshGeneration - 1;
+        }
+    }
+
+    /**
+     * Re-run the transformers of the given subscription and send the
+     * result to its player. Data of {@linkplain InformationProvider#snapshotSafe() snapshot-safe}
+     * providers is encoded on a worker thread, in which case the update is
+     * sent asynchronously once encoding has finished
+     *
+     * @return {@code false} if the target no longer exists and
+     * the subscription should be dropped
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean pushUpdate(MinecraftServer server, ServerPlayerEntity player, Subscription subscription) {
+        subscription.targetData.readerIndex(0);
+
+        var target = subscription.type.deserializer().apply(subscription.access, subscription.targetData);
+        if (target == null) return false;
+
+        var batch = UPDATE_BATCH;
+        batch.clear();
+
+        // After the initial update, only live providers can produce new data - unless the player
+        // started or stopped sneaking since, which changes the set of applicable providers
+        boolean sendAll = !subscription.initialUpdateSent || player.isSneaking() != subscription.sneaking;
+        subscription.sneaking = player.isSneaking();
+
+        boolean needsWorker = false;
+        for (var provider : TooltipObjectManager.getProviders(subscription.type, target, player.isSneaking())) {
+            if (provider.client()) continue;
+            if (!provider.live() && !sendAll && !subscription.refreshedProviders.contains(provider)) continue;
 
-        if (data.lastTargetNonce != nonce) {
-            data.lastTargetNonce = nonce;
-            data.rateLimit.setOverride(OwoWhatsThis.CONFIG.updateDelay() / 2);
+            int providerId = OwoWhatsThis.INFORMATION_PROVIDER.getRawId(provider);
+
+            // Throttled providers keep whatever data the client already has
+            if (!ProviderBudgetTracker.mayRun(provider, server.getTicks(), subscription.initialUpdateSent)) {
+                batch.skippedIds.add(providerId);
+                TooltipMetrics.SERVER_THROTTLED.increment();
+                continue;
+            }
+
+            long startTime = System.nanoTime();
+            var result = TransformerResultCache.apply(provider, player, target);
+            long transformerTime = System.nanoTime() - startTime;
+            ProviderBudgetTracker.record(provider, server.getTicks(), transformerTime);
+            TooltipMetrics.serverProviderTime(provider).record(transformerTime);
+
+            if (result.value() == null) continue;
+
+            batch.add(providerId, (InformationProvider<Object, Object>) provider, result);
+            if (provider.snapshotSafe() && !result.isEncoded()) needsWorker = true;
         }
 
-        if (data.rateLimit.update(player.getWorld().getTime())) {
-            data.rateLimit.clearOverride();
+        subscription.refreshedProviders.clear();
+
+        if (!needsWorker) {
+            sendUpdate(server, player, subscription, batch);
             return true;
-        } else {
-            return false;
+        }
+
+        var asyncBatch = batch.copy();
+        var playerId = player.getUuid();
+        var ctx = SerializationContext.attributes(RegistriesAttribute.of(server.getRegistryManager()));
+
+        subscription.updatePending = true;
+        CompletableFuture.runAsync(() -> {
+            var scratch = new RegistryByteBuf(PooledByteBufAllocator.DEFAULT.heapBuffer(), server.getRegistryManager());
+
+            try {
+                for (int i = 0; i < asyncBatch.size(); i++) {
+                    var provider = asyncBatch.providers.get(i);
+                    if (!provider.snapshotSafe()) continue;
+
+                    asyncBatch.results.get(i).encoded(value -> UpdateAssembler.encodeProviderData(provider, scratch, ctx, value));
+                }
+            } finally {
+                scratch.release();
+            }
+        }, Util.getMainWorkerExecutor()).whenCompleteAsync((unused, throwable) -> {
+            subscription.updatePending = false;
+            if (throwable != null) OwoWhatsThis.LOGGER.error("Failed to encode tooltip data off-thread", throwable);
+
+            // The server might have stopped while we were encoding, taking the buffers with it
+            if (assemblyBuffer == null) return;
+
+            // The player might have looked away or left while we were encoding
+            var currentPlayer = server.getPlayerManager().getPlayer(playerId);
+            if (currentPlayer == null) return;
+
+            var data = ClientData.get(currentPlayer);
+            if (data == null || data.subscription != subscription) return;
+
+            // Encoding would just fail the same way again during the next update
+            if (throwable != null) {
+                data.subscription = null;
+                return;
+            }
+
+            sendUpdate(server, currentPlayer, subscription, asyncBatch);
+        }, server);
+
+        return true;
+    }
+
+    /**
+     * Encode the given batch of transformer results and send them
+     * to the player if they differ from what was sent last
+     */
+    @SuppressWarnings("DataFlowIssue")
+    private static void sendUpdate(MinecraftServer server, ServerPlayerEntity player, Subscription subscription, UpdateAssembler.UpdateBatch batch) {
+        var ctx = SerializationContext.attributes(RegistriesAttribute.of(server.getRegistryManager()));
+        var buffer = assemblyBuffer;
+
+        boolean changed = UpdateAssembler.assemble(buffer, encodeBuffer, ctx, subscription.sentData, batch) || !subscription.initialUpdateSent;
+        subscription.initialUpdateSent = true;
+
+        if (changed) {
+            TooltipMetrics.SERVER_SENT_BYTES.record(buffer.readableBytes());
+            CHANNEL.serverHandle(player).send(new DataUpdatePacket(subscription.nonce, new PacketByteBuf(Unpooled.copiedBuffer(buffer))));
         }
     }
 
@@ -89,8 +335,28 @@ public class OwoWhatsThisNetworking {
         });
     }
 
-    private static class ClientData {
-        public int lastTargetNonce = -1;
-        public final RateLimitTracker rateLimit = new RateLimitTracker();
+    static class Subscription {
+        public ServerAccess access;
+        public final TargetType<Object> type;
+        public final PacketByteBuf targetData;
+        public final int nonce;
+
+        public boolean initialUpdateSent = false;
+        public boolean updatePending = false;
+        public boolean rateLimited = false;
+        public boolean sneaking = false;
+        public long servedGeneration = 0;
+        public final Int2ObjectMap<Object> sentData = new Int2ObjectOpenHashMap<>();
+
+        // Non-live providers which should be sent again during the next update
+        public final Set<InformationProvider<?, ?>> refreshedProviders = new ReferenceOpenHashSet<>();
+
+        @SuppressWarnings("unchecked")
+        private Subscription(ServerAccess access, TargetType<?> type, byte[] targetData, int nonce) {
+            this.access = access;
+            this.type = (TargetType<Object>) type;
+            this.targetData = new PacketByteBuf(Unpooled.wrappedBuffer(targetData));
+            this.nonce = nonce;
+        }
     }
 }
@@ -0,0 +1,125 @@
+package io.wispforest.owowhatsthis.network;
+
+import io.wispforest.owowhatsthis.OwoWhatsThis;
+import io.wispforest.owowhatsthis.information.InformationProvider;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Keeps track of how much server tick time each provider spends in its transformer.
+ * A provider which exceeds its {@code providerTimeBudget} is first demoted to a lower
+ * refresh rate and, should it stay over budget, temporarily disabled
+ */
+@ApiStatus.Internal
+public class ProviderBudgetTracker {
+
+    // Demoted providers only refresh every DEMOTION_FACTOR update cycles
+    private static final int DEMOTION_FACTOR = 4;
+    private static final int DISABLE_TICKS = 20 * 30;
+    private static final int RECOVERY_TICKS = 20 * 60;
+
+    private static final Map<InformationProvider<?, ?>, Budget> BUDGETS = new IdentityHashMap<>();
+    private static final Map<InformationProvider<?, ?>, Budget> BUDGETS_VIEW = Collections.unmodifiableMap(BUDGETS);
+
+    /**
+     * Whether the given provider may run its transformer this tick
+     *
+     * @param refresh whether this is a refresh of data which
+     *                has already been sent, rather than an initial update
+     */
+    public static boolean mayRun(InformationProvider<?, ?> provider, long tick, boolean refresh) {
+        var budget = BUDGETS.get(provider);
+        if (budget == null) return true;
+
+        return switch (budget.state) {
+            case NORMAL -> true;
+            case DEMOTED -> !refresh || budget.lastRunTick == tick || tick - budget.lastRunTick >= (long) DEMOTION_FACTOR * Math.max(OwoWhatsThis.CONFIG.updateDelay(), 1);
+            case DISABLED -> false;
+        };
+    }
+
+    public static void record(InformationProvider<?, ?> provider, long tick, long nanos) {
+        var budget = BUDGETS.computeIfAbsent(provider, $ -> new Budget());
+        budget.tickNanos += nanos;
+        budget.lastRunTick = tick;
+    }
+
+    /**
+     * Evaluate the time each provider spent during the given tick
+     * against the budget and adjust their states accordingly
+     */
+    public static void endTick(long tick) {
+        if (BUDGETS.isEmpty()) return;
+
+        long budgetNanos = OwoWhatsThis.CONFIG.providerTimeBudget() * 1000L;
+        BUDGETS.forEach((provider, budget) -> {
+            if (budget.tickNanos > budgetNanos) {
+                budget.lastOverrunNanos = budget.tickNanos;
+                budget.lastOverrunTick = tick;
+
+                if (budget.state == State.NORMAL) {
+                    budget.state = State.DEMOTED;
+                    OwoWhatsThis.LOGGER.warn("Tooltip provider {} took {}µs in a single tick, reducing its refresh rate", idOf(provider), budget.tickNanos / 1000);
+                } else if (budget.state == State.DEMOTED) {
+                    budget.state = State.DISABLED;
+                    budget.disabledUntil = tick + DISABLE_TICKS;
+                    OwoWhatsThis.LOGGER.warn("Tooltip provider {} took {}µs in a single tick, disabling it for {} seconds", idOf(provider), budget.tickNanos / 1000, DISABLE_TICKS / 20);
+                }
+            } else if (budget.state == State.DISABLED && tick >= budget.disabledUntil) {
+                budget.state = State.DEMOTED;
+                budget.lastOverrunTick = tick;
+            } else if (budget.state == State.DEMOTED && tick - budget.lastOverrunTick >= RECOVERY_TICKS) {
+                budget.state = State.NORMAL;
+                OwoWhatsThis.LOGGER.info("Tooltip provider {} is back within its time budget", idOf(provider));
+            }
+
+            budget.tickNanos = 0;
+        });
+    }
+
+    public static Map<InformationProvider<?, ?>, Budget> budgets() {
+        return BUDGETS_VIEW;
+    }
+
+    public static void clear() {
+        BUDGETS.clear();
+    }
+
+    private static Object idOf(InformationProvider<?, ?> provider) {
+        return OwoWhatsThis.INFORMATION_PROVIDER.getId(provider);
+    }
+
+    public static final class Budget {
+
+        private State state = State.NORMAL;
+        private long tickNanos = 0;
+        private long lastRunTick = -1;
+
+        private long lastOverrunNanos = 0;
+        private long lastOverrunTick = -1;
+        private long disabledUntil = 0;
+
+        public State state() {
+            return this.state;
+        }
+
+        public long lastOverrunNanos() {
+            return this.lastOverrunNanos;
+        }
+
+        public long lastOverrunTick() {
+            return this.lastOverrunTick;
+        }
+
+        public long disabledUntil() {
+            return this.disabledUntil;
+        }
+    }
+
+    public enum State {
+        NORMAL, DEMOTED, DISABLED
+    }
+}
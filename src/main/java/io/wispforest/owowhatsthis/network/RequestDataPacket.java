@@ -2,4 +2,12 @@ package io.wispforest.owowhatsthis.network;
 
 import net.minecraft.network.PacketByteBuf;
 
+/**
+ * Subscribe to the data of the target encoded in {@code targetData}
+ * <p>
+ * The buffer is owned by the receiving handler, which must release it
+ * once read. Since the channel may serialize the packet asynchronously,
+ * senders must not reuse it - use an exact-size unpooled copy of
+ * the scratch buffer the target was encoded into instead
+ */
 public record RequestDataPacket(int nonce, PacketByteBuf targetData) {}
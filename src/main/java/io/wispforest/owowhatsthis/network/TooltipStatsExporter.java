@@ -0,0 +1,120 @@
+package io.wispforest.owowhatsthis.network;
+
+import com.google.gson.JsonObject;
+import io.wispforest.owowhatsthis.OwoWhatsThis;
+import io.wispforest.owowhatsthis.TooltipMetrics;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Periodically appends the server-side {@link TooltipMetrics} to a JSON-lines file in
+ * the game directory, one line every {@code statsExportInterval} seconds. Counts and
+ * totals cover only the interval since the previous line, while percentiles are taken
+ * over the most recently recorded samples
+ */
+@ApiStatus.Internal
+public class TooltipStatsExporter {
+
+    public static final String FILE_NAME = "owo-whats-this-stats.jsonl";
+
+    // Count and total of every metric at the time of the previous export
+    private static final Map<TooltipMetrics.Metric, long[]> LAST_EXPORTED = new IdentityHashMap<>();
+    private static long lastExportTick = 0;
+
+    public static void tick(MinecraftServer server) {
+        int interval = OwoWhatsThis.CONFIG.statsExportInterval();
+        if (interval == 0 || server.getTicks() - lastExportTick < interval * 20L) return;
+
+        lastExportTick = server.getTicks();
+        var line = collect(server).toString() + "\n";
+
+        var path = FabricLoader.getInstance().getGameDir().resolve(FILE_NAME);
+        Util.getIoWorkerExecutor().execute(() -> append(path, line));
+    }
+
+    public static void clear() {
+        LAST_EXPORTED.clear();
+        lastExportTick = 0;
+    }
+
+    private static JsonObject collect(MinecraftServer server) {
+        var json = new JsonObject();
+        json.addProperty("timestamp", System.currentTimeMillis());
+        json.addProperty("tick", server.getTicks());
+        json.addProperty("mspt", server.getAverageTickTime());
+
+        json.add("sent_bytes", metric(TooltipMetrics.SERVER_SENT_BYTES, true));
+        json.addProperty("rate_limited", countDelta(TooltipMetrics.SERVER_RATE_LIMITED));
+        json.addProperty("deferred", countDelta(TooltipMetrics.SERVER_DEFERRED));
+        json.addProperty("throttled", countDelta(TooltipMetrics.SERVER_THROTTLED));
+
+        long hits = countDelta(TooltipMetrics.SERVER_CACHE_HITS), misses = countDelta(TooltipMetrics.SERVER_CACHE_MISSES);
+        json.addProperty("cache_hits", hits);
+        json.addProperty("cache_misses", misses);
+        json.addProperty("cache_hit_rate", hits + misses == 0 ? 0 : hits / (double) (hits + misses));
+
+        var providers = new JsonObject();
+        TooltipMetrics.serverProviderTimes().forEach((provider, metric) -> {
+            providers.add(String.valueOf(OwoWhatsThis.INFORMATION_PROVIDER.getId(provider)), metric(metric, false));
+        });
+        json.add("providers", providers);
+
+        return json;
+    }
+
+    private static JsonObject metric(TooltipMetrics.Metric metric, boolean bytes) {
+        var previous = LAST_EXPORTED.computeIfAbsent(metric, $ -> new long[2]);
+
+        // The metrics might have been reset since the last export
+        if (metric.count() < previous[0]) {
+            previous[0] = 0;
+            previous[1] = 0;
+        }
+
+        var json = new JsonObject();
+        json.addProperty("count", metric.count() - previous[0]);
+
+        if (bytes) {
+            json.addProperty("total", metric.total() - previous[1]);
+            json.addProperty("p50", metric.percentile(.5));
+            json.addProperty("p99", metric.percentile(.99));
+        } else {
+            json.addProperty("total_us", (metric.total() - previous[1]) / 1000d);
+            json.addProperty("p50_us", metric.percentile(.5) / 1000d);
+            json.addProperty("p99_us", metric.percentile(.99) / 1000d);
+        }
+
+        previous[0] = metric.count();
+        previous[1] = metric.total();
+
+        return json;
+    }
+
+    private static long countDelta(TooltipMetrics.Metric metric) {
+        var previous = LAST_EXPORTED.computeIfAbsent(metric, $ -> new long[2]);
+        if (metric.count() < previous[0]) previous[0] = 0;
+
+        long delta = metric.count() - previous[0];
+        previous[0] = metric.count();
+
+        return delta;
+    }
+
+    private static void append(Path path, String line) {
+        try {
+            Files.writeString(path, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            OwoWhatsThis.LOGGER.warn("Could not write tooltip stats to {}", path, e);
+        }
+    }
+}
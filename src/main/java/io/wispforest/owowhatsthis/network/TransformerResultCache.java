@@ -0,0 +1,94 @@
+package io.wispforest.owowhatsthis.network;
+
+import io.wispforest.owowhatsthis.OwoWhatsThis;
+import io.wispforest.owowhatsthis.TooltipMetrics;
+import io.wispforest.owowhatsthis.information.InformationProvider;
+import io.wispforest.owowhatsthis.information.TargetKey;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Server-side cache of transformer results, which allows players looking at
+ * the same target to share the work of running and encoding its providers. Results are valid
+ * for {@code transformerCacheWindow} ticks, unless their provider is
+ * {@linkplain InformationProvider#viewerDependent() viewer dependent}
+ */
+@ApiStatus.Internal
+public class TransformerResultCache {
+
+    private static final Map<Key, Entry> CACHE = new HashMap<>();
+
+    public static <T> Result apply(InformationProvider<T, ?> provider, ServerPlayerEntity player, T target) {
+        if (provider.viewerDependent()) {
+            return new Result(provider.transformer().apply(player, player.getWorld(), target));
+        }
+
+        var key = new Key(provider, player.getWorld(), provider.applicableTargetType().keyOf(target));
+
+        var entry = CACHE.get(key);
+        if (entry != null) {
+            TooltipMetrics.SERVER_CACHE_HITS.increment();
+            return entry.result;
+        }
+
+        TooltipMetrics.SERVER_CACHE_MISSES.increment();
+
+        var result = new Result(provider.transformer().apply(player, player.getWorld(), target));
+        CACHE.put(key, new Entry(player.server.getTicks(), result));
+
+        return result;
+    }
+
+    public static void expire(long currentTick) {
+        if (CACHE.isEmpty()) return;
+
+        int window = OwoWhatsThis.CONFIG.transformerCacheWindow();
+        CACHE.values().removeIf(entry -> currentTick - entry.tick >= window);
+    }
+
+    public static void invalidate(InformationProvider<?, ?> provider) {
+        CACHE.keySet().removeIf(key -> key.provider == provider);
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    private record Key(InformationProvider<?, ?> provider, World world, TargetKey target) {}
+
+    private record Entry(long tick, Result result) {}
+
+    public static final class Result {
+
+        private final @Nullable Object value;
+        private volatile @Nullable Object encoded = null;
+
+        Result(@Nullable Object value) {
+            this.value = value;
+        }
+
+        public @Nullable Object value() {
+            return this.value;
+        }
+
+        public boolean isEncoded() {
+            return this.encoded != null;
+        }
+
+        /**
+         * The encoded form of this result. It is only computed once, by whoever
+         * first needs it, and shared afterwards - this may happen on a worker
+         * thread for {@linkplain InformationProvider#snapshotSafe() snapshot-safe} providers
+         */
+        public synchronized Object encoded(Function<Object, Object> encoder) {
+            if (this.encoded == null) this.encoded = encoder.apply(this.value);
+            return this.encoded;
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package io.wispforest.owowhatsthis.network;
+
+public record UnsubscribePacket(int nonce) {}
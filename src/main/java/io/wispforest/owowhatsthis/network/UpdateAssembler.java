@@ -0,0 +1,172 @@
+package io.wispforest.owowhatsthis.network;
+
+import io.netty.buffer.ByteBufUtil;
+import io.wispforest.endec.Endec;
+import io.wispforest.endec.SerializationContext;
+import io.wispforest.owowhatsthis.information.InformationProvider;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.network.RegistryByteBuf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes transformer results and assembles them into the payload of a {@link DataUpdatePacket}.
+ * This is kept apart from {@link OwoWhatsThisNetworking} and holds no channel or
+ * config state, so that it can be exercised without a running game
+ */
+final class UpdateAssembler {
+
+    // Only used while assembling, which is confined to the server thread
+    private static final IntArrayList CHANGED_ELEMENTS = new IntArrayList();
+
+    private UpdateAssembler() {}
+
+    /**
+     * Assemble the update for the given batch of transformer results into {@code buffer},
+     * as the delta against {@code sentData} which is updated to match. Data which did not
+     * change is replaced with a {@link DataUpdatePacket#UNCHANGED} marker, and list data
+     * is sent as a {@link DataUpdatePacket#LIST_DELTA}
+     *
+     * @return {@code true} if the update differs from what was sent last
+     */
+    static boolean assemble(RegistryByteBuf buffer, RegistryByteBuf scratch, SerializationContext ctx, Int2ObjectMap<Object> sentData, UpdateBatch batch) {
+        boolean changed = false;
+        buffer.clear();
+
+        int retainedCount = 0;
+        for (int i = 0; i < batch.skippedIds.size(); i++) {
+            if (sentData.containsKey(batch.skippedIds.getInt(i))) retainedCount++;
+        }
+
+        buffer.writeVarInt(batch.size() + retainedCount);
+        for (int i = 0; i < batch.skippedIds.size(); i++) {
+            int providerId = batch.skippedIds.getInt(i);
+            if (!sentData.containsKey(providerId)) continue;
+
+            buffer.writeVarInt(providerId);
+            buffer.writeByte(DataUpdatePacket.UNCHANGED);
+        }
+
+        for (int providerIdx = 0; providerIdx < batch.size(); providerIdx++) {
+            var provider = batch.providers.get(providerIdx);
+            int providerId = batch.providerIds.getInt(providerIdx);
+            var previous = sentData.get(providerId);
+
+            buffer.writeVarInt(providerId);
+
+            // The encoded form is cached along with the result, so that players
+            // looking at the same target don't all encode the same data again
+            var encoded = batch.results.get(providerIdx).encoded(value -> encodeProviderData(provider, scratch, ctx, value));
+            if (encoded instanceof byte[][] encodedElements) {
+                CHANGED_ELEMENTS.clear();
+                for (int i = 0; i < encodedElements.length; i++) {
+                    if (!(previous instanceof byte[][] previousElements) || i >= previousElements.length || !Arrays.equals(previousElements[i], encodedElements[i])) {
+                        CHANGED_ELEMENTS.add(i);
+                    }
+                }
+
+                if (previous instanceof byte[][] previousElements && previousElements.length == encodedElements.length && CHANGED_ELEMENTS.isEmpty()) {
+                    buffer.writeByte(DataUpdatePacket.UNCHANGED);
+                } else {
+                    buffer.writeByte(DataUpdatePacket.LIST_DELTA);
+                    buffer.writeVarInt(encodedElements.length);
+                    buffer.writeVarInt(CHANGED_ELEMENTS.size());
+                    for (int i = 0; i < CHANGED_ELEMENTS.size(); i++) {
+                        int index = CHANGED_ELEMENTS.getInt(i);
+                        buffer.writeVarInt(index);
+                        buffer.writeBytes(encodedElements[index]);
+                    }
+
+                    changed = true;
+                }
+            } else {
+                var encodedData = (byte[]) encoded;
+
+                if (previous instanceof byte[] previousData && Arrays.equals(previousData, encodedData)) {
+                    buffer.writeByte(DataUpdatePacket.UNCHANGED);
+                } else {
+                    buffer.writeByte(DataUpdatePacket.FULL);
+                    buffer.writeBytes(encodedData);
+
+                    changed = true;
+                }
+            }
+
+            // Non-live data is only ever sent once, so there is no point in remembering it
+            if (provider.live()) sentData.put(providerId, encoded);
+        }
+
+        // A live provider which no longer applies must be removed on the client
+        var sentProviders = sentData.keySet().iterator();
+        while (sentProviders.hasNext()) {
+            int providerId = sentProviders.nextInt();
+            if (batch.providerIds.contains(providerId) || batch.skippedIds.contains(providerId)) continue;
+
+            sentProviders.remove();
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    /**
+     * Encode the given provider data, either into a single byte
+     * array or into one array per element for list providers
+     */
+    @SuppressWarnings("unchecked")
+    static Object encodeProviderData(InformationProvider<Object, Object> provider, RegistryByteBuf scratch, SerializationContext ctx, Object data) {
+        if (provider.listElementEndec() == null) return encode(scratch, ctx, provider.endec(), data);
+
+        var elementEndec = (Endec<Object>) provider.listElementEndec();
+        var elements = (List<Object>) data;
+
+        var encodedElements = new byte[elements.size()][];
+        for (int i = 0; i < elements.size(); i++) {
+            encodedElements[i] = encode(scratch, ctx, elementEndec, elements.get(i));
+        }
+
+        return encodedElements;
+    }
+
+    private static <T> byte[] encode(RegistryByteBuf scratch, SerializationContext ctx, Endec<T> endec, T value) {
+        scratch.clear();
+        scratch.write(ctx, endec, value);
+        return ByteBufUtil.getBytes(scratch);
+    }
+
+    static class UpdateBatch {
+        public final IntArrayList providerIds = new IntArrayList();
+        public final List<InformationProvider<Object, Object>> providers = new ArrayList<>();
+        public final List<TransformerResultCache.Result> results = new ArrayList<>();
+        public final IntArrayList skippedIds = new IntArrayList();
+
+        public void add(int providerId, InformationProvider<Object, Object> provider, TransformerResultCache.Result result) {
+            this.providerIds.add(providerId);
+            this.providers.add(provider);
+            this.results.add(result);
+        }
+
+        public int size() {
+            return this.providerIds.size();
+        }
+
+        public void clear() {
+            this.providerIds.clear();
+            this.providers.clear();
+            this.results.clear();
+            this.skippedIds.clear();
+        }
+
+        public UpdateBatch copy() {
+            var copy = new UpdateBatch();
+            copy.providerIds.addAll(this.providerIds);
+            copy.providers.addAll(this.providers);
+            copy.results.addAll(this.results);
+            copy.skippedIds.addAll(this.skippedIds);
+            return copy;
+        }
+    }
+}